@@ -0,0 +1,142 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+
+import io.openliberty.guides.microprofile.cache.BoundedInventoryCache;
+import io.openliberty.guides.microprofile.cache.HostRecord;
+import io.openliberty.guides.microprofile.cache.UnreachableHosts;
+import io.openliberty.guides.microprofile.store.MemoryInventoryStore;
+import io.openliberty.guides.microprofile.util.FetchResult;
+import io.openliberty.guides.microprofile.util.HostCircuitBreakers;
+import io.openliberty.guides.microprofile.util.InventoryClient;
+import io.openliberty.guides.microprofile.util.InventoryMetrics;
+
+/**
+ * Builds an InventoryManager outside of the container, with a local stub in
+ * place of the remote system services.
+ */
+final class InventoryFixture {
+
+    static final String URL = "http://localhost:9080/inventory/hosts";
+
+    private InventoryFixture() {
+    }
+
+    static String hostname(int i) {
+        return "host" + i + ".example.com";
+    }
+
+    static InventoryManager manager(int hosts) {
+        return manager(hosts, false);
+    }
+
+    static InventoryManager manager(int hosts, boolean keepJson) {
+        InventoryManager manager = new InventoryManager();
+        manager.client = new StubClient();
+        manager.inv = new BoundedInventoryCache(hosts * 2,
+                                                TimeUnit.HOURS.toNanos(1),
+                                                TimeUnit.HOURS.toNanos(1),
+                                                keepJson);
+        manager.unreachable = new UnreachableHosts();
+        manager.store = new MemoryInventoryStore();
+        manager.breakers = new HostCircuitBreakers();
+        manager.metrics = new NoMetrics();
+        manager.events = new InventoryEvents();
+        manager.events.replaySize = 1024;
+        manager.deadline = 3000;
+        manager.bulkConcurrency = 16;
+        manager.snapshotMaxHosts = 10000;
+        manager.linksBaseUrl = URL;
+        manager.init();
+        for (int i = 0; i < hosts; i++) {
+            manager.add(hostname(i), properties(hostname(i)));
+        }
+        return manager;
+    }
+
+    /**
+     * Returns properties shaped like those of a system service: the local
+     * system properties, with a few that differ between hosts.
+     */
+    static JsonObject properties(String hostname) {
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        System.getProperties().forEach(
+            (key, value) -> builder.add(key.toString(), value.toString()));
+        return builder.add("user.name", "user" + (hostname.hashCode() & 7))
+                      .add("os.name", (hostname.hashCode() & 1) == 0
+                          ? "Linux" : "Mac OS X")
+                      .build();
+    }
+
+    /**
+     * Answers every fetch at once with the properties of the host.
+     */
+    static final class StubClient extends InventoryClient {
+        @Override
+        public CompletionStage<FetchResult> fetch(String hostname,
+                                                  HostRecord known) {
+            return CompletableFuture.completedFuture(
+                FetchResult.ok(properties(hostname)));
+        }
+    }
+
+    /**
+     * Drops what the manager records, since there is no metric registry
+     * outside of the container.
+     */
+    static final class NoMetrics extends InventoryMetrics {
+        @Override
+        public void hit() {
+        }
+
+        @Override
+        public void miss() {
+        }
+
+        @Override
+        public void fetch() {
+        }
+
+        @Override
+        public void coalesce() {
+        }
+
+        @Override
+        public long getFetches() {
+            return 0;
+        }
+
+        @Override
+        public long getCoalesced() {
+            return 0;
+        }
+
+        @Override
+        public void served(long start) {
+        }
+
+        @Override
+        public void gauge(String name, String description,
+                          Supplier<? extends Number> value) {
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Requests for cached hosts, made by several threads at once, with and
+ * without the rebuilt properties kept in the cache entries. The setup prints
+ * the heap held by the inventory after every host was read once, which is
+ * what keeping the properties costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class InventoryGetBenchmark {
+
+    @Param({ "10000" })
+    int hosts;
+
+    @Param({ "false", "true" })
+    boolean keepJson;
+
+    private InventoryManager manager;
+    private String[] hostnames;
+
+    @Setup
+    public void setUp() {
+        long before = usedHeap();
+        manager = InventoryFixture.manager(hosts, keepJson);
+        hostnames = new String[hosts];
+        for (int i = 0; i < hosts; i++) {
+            hostnames[i] = InventoryFixture.hostname(i);
+            manager.get(hostnames[i]).toCompletableFuture().join();
+        }
+        System.out.printf("%nheap held by %d hosts read once: %d KB%n", hosts,
+                          (usedHeap() - before) / 1024);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Benchmark
+    public JsonObject getHit() {
+        String hostname = hostnames[ThreadLocalRandom.current().nextInt(hosts)];
+        return manager.get(hostname).toCompletableFuture().join();
+    }
+
+}
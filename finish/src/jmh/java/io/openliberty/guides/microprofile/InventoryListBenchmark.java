@@ -0,0 +1,78 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The whole listings of inventories of different sizes: built as JSON
+ * objects, served from their snapshots, and streamed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InventoryListBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    int hosts;
+
+    private InventoryManager manager;
+
+    @Setup
+    public void setUp() {
+        manager = InventoryFixture.manager(hosts);
+    }
+
+    @Benchmark
+    public JsonObject list() {
+        return manager.list();
+    }
+
+    @Benchmark
+    public JsonObject getSystems() {
+        return manager.getSystems(InventoryFixture.URL);
+    }
+
+    @Benchmark
+    public OutputStream streamList() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        manager.streamList().write(out);
+        return out;
+    }
+
+    @Benchmark
+    public OutputStream streamSystems() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        manager.streamSystems(InventoryFixture.URL).write(out);
+        return out;
+    }
+
+}
@@ -0,0 +1,46 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.JsonArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.openliberty.guides.microprofile.util.InventoryUtil;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryUtilBenchmark {
+
+    @Benchmark
+    public JsonArray buildLinksForHost() {
+        return InventoryUtil.buildLinksForHost("host1.example.com",
+                                               InventoryFixture.URL);
+    }
+
+    @Benchmark
+    public JsonArray buildLinksForContents() {
+        return InventoryUtil.buildLinksForHost("*", InventoryFixture.URL);
+    }
+
+}
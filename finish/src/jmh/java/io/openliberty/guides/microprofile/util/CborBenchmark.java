@@ -0,0 +1,99 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonReaderFactory;
+import jakarta.json.JsonValue;
+import jakarta.json.JsonWriter;
+import jakarta.json.JsonWriterFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding of a set of system properties as JSON and as CBOR.
+ * The sizes of both encodings are printed when the benchmark starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CborBenchmark {
+
+    // factories made once, so that the provider lookup is not measured
+    private static final JsonReaderFactory READERS = Json.createReaderFactory(null);
+    private static final JsonWriterFactory WRITERS = Json.createWriterFactory(null);
+
+    private JsonObject properties;
+    private byte[] json;
+    private byte[] cbor;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        System.getProperties().forEach(
+            (key, value) -> builder.add(key.toString(), value.toString()));
+        properties = builder.build();
+        json = encodeJson();
+        cbor = encodeCbor();
+        System.out.printf("%n%d properties: %d bytes as JSON, %d bytes as CBOR%n",
+                          properties.size(), json.length, cbor.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonWriter writer = WRITERS.createWriter(out)) {
+            writer.writeObject(properties);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Cbor.write(properties, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public JsonObject decodeJson() {
+        try (JsonReader reader = READERS.createReader(new ByteArrayInputStream(json))) {
+            return reader.readObject();
+        }
+    }
+
+    @Benchmark
+    public JsonValue decodeCbor() throws IOException {
+        return Cbor.read(new ByteArrayInputStream(cbor));
+    }
+
+}
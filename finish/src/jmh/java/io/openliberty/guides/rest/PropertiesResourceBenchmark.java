@@ -0,0 +1,121 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.rest;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.openliberty.guides.microprofile.util.Compression;
+
+/**
+ * Calls the resource method directly, as the container would for a request
+ * without conditional headers, so the cost measured is that of the method
+ * and of the response it builds, without the HTTP stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertiesResourceBenchmark {
+
+    private static final List<String> KEYS = List.of("os.name,user.name");
+
+    private final PropertiesResource resource = new PropertiesResource();
+    private final Request request = new UnconditionalRequest();
+    // only read for a request with a since parameter, which none of these has
+    private final HttpHeaders headers = null;
+
+    @Setup
+    public void setUp() {
+        resource.properties = new SystemProperties();
+        resource.properties.checkInterval = 1000;
+        resource.properties.historySize = 16;
+        // the threshold is left at 0; the properties are well above the
+        // default of 1024 bytes, so the same coding is chosen either way
+        resource.compression = new Compression();
+    }
+
+    @Benchmark
+    public Response getProperties() {
+        return resource.getProperties(request, headers, Collections.emptyList(),
+                                      null, null);
+    }
+
+    @Benchmark
+    public Response getPropertiesGzip() {
+        return resource.getProperties(request, headers, Collections.emptyList(),
+                                      null, "gzip");
+    }
+
+    @Benchmark
+    public Response getProjection() {
+        return resource.getProperties(request, headers, KEYS, null, null);
+    }
+
+    /**
+     * Request without conditional headers, so no precondition ever matches.
+     */
+    static final class UnconditionalRequest implements Request {
+        @Override
+        public String getMethod() {
+            return "GET";
+        }
+
+        @Override
+        public Variant selectVariant(List<Variant> variants) {
+            return null;
+        }
+
+        @Override
+        public Response.ResponseBuilder evaluatePreconditions(EntityTag eTag) {
+            return null;
+        }
+
+        @Override
+        public Response.ResponseBuilder evaluatePreconditions(Date lastModified) {
+            return null;
+        }
+
+        @Override
+        public Response.ResponseBuilder evaluatePreconditions(Date lastModified,
+                                                              EntityTag eTag) {
+            return null;
+        }
+
+        @Override
+        public Response.ResponseBuilder evaluatePreconditions() {
+            return null;
+        }
+    }
+
+}
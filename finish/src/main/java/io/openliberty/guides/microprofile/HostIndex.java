@@ -0,0 +1,128 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+import io.openliberty.guides.microprofile.cache.InventoryListener;
+
+/**
+ * Hosts of the inventory sorted by hostname, each with its record. Pages are
+ * read from the sorted map, so the cost of a page depends on its size and not
+ * on the size of the inventory.
+ */
+class HostIndex implements InventoryListener {
+
+    private final NavigableMap<String, HostRecord> records =
+        new ConcurrentSkipListMap<>();
+
+    /**
+     * One page of hostnames. A null previous cursor with hasPrevious set means
+     * that the previous page is the first one.
+     */
+    static final class Page {
+        final List<Map.Entry<String, HostRecord>> entries;
+        final boolean hasPrevious;
+        final String previousCursor;
+        final String nextCursor;
+
+        Page(List<Map.Entry<String, HostRecord>> entries, boolean hasPrevious,
+             String previousCursor, String nextCursor) {
+            this.entries = entries;
+            this.hasPrevious = hasPrevious;
+            this.previousCursor = previousCursor;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    @Override
+    public void hostAdded(String hostname, HostRecord record) {
+        records.put(hostname, record);
+    }
+
+    @Override
+    public void hostUpdated(String hostname, HostRecord record) {
+        records.put(hostname, record);
+    }
+
+    @Override
+    public void hostRemoved(String hostname, RemovalCause cause) {
+        records.remove(hostname);
+    }
+
+    NavigableMap<String, HostRecord> records() {
+        return records;
+    }
+
+    /**
+     * Returns up to limit hosts matching the filter, starting after the cursor
+     * hostname, or from the first host if the cursor is null.
+     */
+    Page page(String cursor, int limit, Predicate<HostRecord> filter) {
+        NavigableMap<String, HostRecord> after =
+            cursor == null ? records : records.tailMap(cursor, false);
+        List<Map.Entry<String, HostRecord>> entries = new ArrayList<>(limit);
+        String nextCursor = null;
+        for (Map.Entry<String, HostRecord> entry : after.entrySet()) {
+            if (!filter.test(entry.getValue())) {
+                continue;
+            }
+            if (entries.size() == limit) {
+                nextCursor = entries.get(limit - 1).getKey();
+                break;
+            }
+            entries.add(entry);
+        }
+
+        // walk back over one page of matching hosts to find where it starts
+        boolean hasPrevious = false;
+        String previousStart = null;
+        if (cursor != null) {
+            NavigableMap<String, HostRecord> before =
+                records.headMap(cursor, true).descendingMap();
+            int count = 0;
+            for (Map.Entry<String, HostRecord> entry : before.entrySet()) {
+                if (count == limit) {
+                    break;
+                }
+                if (filter.test(entry.getValue())) {
+                    previousStart = entry.getKey();
+                    count++;
+                }
+            }
+            hasPrevious = count > 0;
+        }
+        String previousCursor =
+            previousStart == null ? null : records.lowerKey(previousStart);
+        return new Page(entries, hasPrevious, previousCursor, nextCursor);
+    }
+
+    /**
+     * Returns the properties of a host shown in the inventory contents.
+     */
+    static JsonObject summary(HostRecord record) {
+        return Json.createObjectBuilder()
+                   .add(HostRecord.OS_NAME, record.getOsName())
+                   .add(HostRecord.USER_NAME, record.getUserName())
+                   .build();
+    }
+
+}
@@ -0,0 +1,288 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+import io.openliberty.guides.microprofile.cache.InventoryListener;
+import io.openliberty.guides.microprofile.util.FetchResult;
+
+/**
+ * Feed of the changes to the inventory, sent as server-sent events. Each
+ * change becomes one event, built once and sent to every subscriber. The last
+ * events are kept so that a subscriber that reconnects with the ID of the
+ * last event it received gets the events it missed; a subscriber that missed
+ * more than that is sent a reset event instead, and should read the listings
+ * again. A subscriber with too many events not yet written is dropped.
+ *
+ * Events are recorded by the threads that change the inventory and sent, in
+ * order, by a single task at a time on the managed executor, which also owns
+ * the subscriber list.
+ */
+@ApplicationScoped
+public class InventoryEvents implements InventoryListener {
+
+    static final String ADDED = "host-added";
+    static final String UPDATED = "host-updated";
+    static final String EVICTED = "host-evicted";
+    static final String UNREACHABLE = "host-unreachable";
+    static final String RESET = "reset";
+
+    @Inject
+    @ConfigProperty(name = "inventory.events.replay", defaultValue = "1024")
+    int replaySize;
+
+    @Inject
+    @ConfigProperty(name = "inventory.events.maxPending", defaultValue = "64")
+    int maxPending;
+
+    @Resource
+    ManagedExecutorService executor;
+
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+
+    // ring of the last events, guarded by its own lock
+    private Event[] replay;
+    private long sequence;
+
+    // work for the sender: events to send and subscribers to add
+    private final Queue<Object> work = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    // owned by the sender
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private volatile Sse sse;
+
+    private static final class Event {
+        final long id;
+        final String name;
+        final String data;
+        // built by the sender when first sent
+        OutboundSseEvent outbound;
+
+        Event(long id, String name, String data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private static final class Subscriber {
+        final SseEventSink sink;
+        final long lastEventId;
+        final AtomicInteger pending = new AtomicInteger();
+        long lastSent;
+
+        Subscriber(SseEventSink sink, long lastEventId) {
+            this.sink = sink;
+            this.lastEventId = lastEventId;
+        }
+    }
+
+    @Override
+    public void hostAdded(String hostname, HostRecord record) {
+        publish(ADDED, summary(hostname, record));
+    }
+
+    @Override
+    public void hostUpdated(String hostname, HostRecord record) {
+        publish(UPDATED, summary(hostname, record));
+    }
+
+    @Override
+    public void hostRemoved(String hostname, RemovalCause cause) {
+        publish(EVICTED, Json.createObjectBuilder()
+                             .add("hostname", hostname)
+                             .add("cause", cause.name())
+                             .build());
+    }
+
+    public void hostUnreachable(String hostname, FetchResult.Outcome outcome) {
+        publish(UNREACHABLE, Json.createObjectBuilder()
+                                 .add("hostname", hostname)
+                                 .add("outcome", outcome.name())
+                                 .build());
+    }
+
+    private static JsonObject summary(String hostname, HostRecord record) {
+        return Json.createObjectBuilder()
+                   .add("hostname", hostname)
+                   .add(HostRecord.OS_NAME, record.getOsName())
+                   .add(HostRecord.USER_NAME, record.getUserName())
+                   .build();
+    }
+
+    private void publish(String name, JsonObject data) {
+        synchronized (this) {
+            if (replay == null) {
+                // no events are kept when replay is set to 0
+                replay = new Event[Math.max(0, replaySize)];
+            }
+            Event event = new Event(++sequence, name, data.toString());
+            if (replay.length > 0) {
+                replay[(int) (event.id % replay.length)] = event;
+            }
+            // until the first subscriber, events are only kept for replay;
+            // queued under the lock so that the sender gets them in order
+            if (sse == null) {
+                return;
+            }
+            work.add(event);
+        }
+        drain();
+    }
+
+    /**
+     * Adds a subscriber. Given the ID of the last event it received, the
+     * events it missed are sent first.
+     */
+    public void subscribe(SseEventSink sink, Sse sse, String lastEventId) {
+        long from;
+        synchronized (this) {
+            // a new subscriber gets the events from now on
+            from = lastEventId == null ? sequence : parseId(lastEventId);
+            this.sse = sse;
+        }
+        work.add(new Subscriber(sink, from));
+        drain();
+    }
+
+    // the sequence number of an event ID of this epoch, -1 for other epochs
+    private long parseId(String id) {
+        String prefix = epoch + "-";
+        if (id.startsWith(prefix)) {
+            try {
+                return Long.parseLong(id.substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                // sent a reset below
+            }
+        }
+        return -1;
+    }
+
+    private void drain() {
+        if (sending.compareAndSet(false, true)) {
+            executor.execute(this::send);
+        }
+    }
+
+    private void send() {
+        try {
+            Object next;
+            while ((next = work.poll()) != null) {
+                if (next instanceof Subscriber) {
+                    add((Subscriber) next);
+                } else {
+                    broadcast((Event) next);
+                }
+            }
+        } finally {
+            sending.set(false);
+        }
+        // work added after the queue was found empty
+        if (!work.isEmpty()) {
+            drain();
+        }
+    }
+
+    private void add(Subscriber subscriber) {
+        List<Event> missed = new ArrayList<>();
+        boolean complete;
+        synchronized (this) {
+            subscriber.lastSent = sequence;
+            long from = subscriber.lastEventId;
+            long oldest = replay == null
+                ? sequence + 1 : Math.max(1, sequence - replay.length + 1);
+            complete = from >= 0 && from <= sequence && from + 1 >= oldest;
+            for (long id = from + 1; complete && id <= sequence; id++) {
+                missed.add(replay[(int) (id % replay.length)]);
+            }
+        }
+        if (!complete) {
+            send(subscriber, outbound(new Event(subscriber.lastSent, RESET, "{}")));
+        }
+        for (Event event : missed) {
+            send(subscriber, outbound(event));
+        }
+        subscribers.add(subscriber);
+    }
+
+    private void broadcast(Event event) {
+        OutboundSseEvent outbound = outbound(event);
+        Iterator<Subscriber> iterator = subscribers.iterator();
+        while (iterator.hasNext()) {
+            Subscriber subscriber = iterator.next();
+            if (subscriber.sink.isClosed()) {
+                iterator.remove();
+            } else if (event.id > subscriber.lastSent) {
+                send(subscriber, outbound);
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, OutboundSseEvent event) {
+        if (subscriber.sink.isClosed()) {
+            return;
+        }
+        if (subscriber.pending.incrementAndGet() > maxPending) {
+            // too slow to keep up: the client reconnects and catches up
+            subscriber.sink.close();
+            return;
+        }
+        subscriber.sink.send(event).whenComplete((result, error) -> {
+            subscriber.pending.decrementAndGet();
+            if (error != null) {
+                subscriber.sink.close();
+            }
+        });
+    }
+
+    private OutboundSseEvent outbound(Event event) {
+        if (event.outbound == null) {
+            event.outbound = sse.newEventBuilder()
+                                .id(epoch + "-" + event.id)
+                                .name(event.name)
+                                .data(event.data)
+                                .build();
+        }
+        return event.outbound;
+    }
+
+    @PreDestroy
+    void close() {
+        work.clear();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.sink.close();
+        }
+    }
+
+}
@@ -1,6 +1,6 @@
 // tag::copyright[]
 /*******************************************************************************
- * Copyright (c) 2017, 2022 IBM Corporation and others.
+ * Copyright (c) 2017, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -11,66 +11,448 @@
 // end::copyright[]
 package io.openliberty.guides.microprofile;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.json.Json;
 import jakarta.json.JsonArray;
 import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonObjectBuilder;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriBuilder;
 
-import io.openliberty.guides.microprofile.util.ReadyJson;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.openliberty.guides.microprofile.cache.CacheEntry;
+import io.openliberty.guides.microprofile.cache.HostRecord;
+import io.openliberty.guides.microprofile.cache.InventoryCache;
+import io.openliberty.guides.microprofile.cache.InventoryListener;
+import io.openliberty.guides.microprofile.cache.UnreachableHosts;
+import io.openliberty.guides.microprofile.store.InventoryStore;
+import io.openliberty.guides.microprofile.util.FetchResult;
+import io.openliberty.guides.microprofile.util.HostCircuitBreakers;
+import io.openliberty.guides.microprofile.util.InventoryClient;
+import io.openliberty.guides.microprofile.util.InventoryMetrics;
 import io.openliberty.guides.microprofile.util.InventoryUtil;
+import io.openliberty.guides.microprofile.util.ReadyJson;
 
 @ApplicationScoped
 public class InventoryManager {
 
-    private ConcurrentMap<String, JsonObject> inv = new ConcurrentHashMap<>();
+    private static final Logger LOGGER =
+        Logger.getLogger(InventoryManager.class.getName());
+
+    @Inject
+    InventoryClient client;
+
+    @Inject
+    InventoryCache inv;
+
+    @Inject
+    UnreachableHosts unreachable;
+
+    @Inject
+    InventoryStore store;
+
+    @Inject
+    HostCircuitBreakers breakers;
+
+    @Inject
+    InventoryMetrics metrics;
+
+    @Inject
+    InventoryEvents events;
+
+    @Inject
+    @ConfigProperty(name = "inventory.request.deadline", defaultValue = "3000")
+    long deadline;
+
+    @Inject
+    @ConfigProperty(name = "inventory.bulk.concurrency", defaultValue = "16")
+    int bulkConcurrency;
+
+    @Inject
+    @ConfigProperty(name = "inventory.snapshot.maxHosts", defaultValue = "10000")
+    int snapshotMaxHosts;
+
+    // base URL of the host links kept in the link index
+    @Inject
+    @ConfigProperty(name = "inventory.links.baseUrl",
+                    defaultValue = "http://localhost:9080/inventory/hosts")
+    String linksBaseUrl;
+
+    // outbound fetches currently running, shared by concurrent misses
+    private ConcurrentMap<String, CompletableFuture<FetchResult>> inFlight =
+        new ConcurrentHashMap<>();
+
+    // distinguishes the entity tags of this instance from those of earlier runs
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+
+    private final HostIndex hosts = new HostIndex();
+    private LinkIndex links;
+
+    // incremented on every change to the inventory
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot listSnapshot;
+
+    @PostConstruct
+    void init() {
+        // the link index is filled from the host index, so it comes after it
+        links = new LinkIndex(epoch, linksBaseUrl, hosts);
+        inv.addListener(hosts);
+        inv.addListener(links);
+        inv.addListener(new InventoryListener() {
+            @Override
+            public void hostAdded(String hostname, HostRecord record) {
+                version.incrementAndGet();
+            }
+
+            @Override
+            public void hostUpdated(String hostname, HostRecord record) {
+                version.incrementAndGet();
+            }
 
-    public JsonObject get(String hostname) {
-        JsonObject properties = inv.get(hostname);
-        if (properties == null) {
-            if (InventoryUtil.responseOk(hostname)) {
-                properties = InventoryUtil.getProperties(hostname);
-                this.add(hostname, properties);
+            @Override
+            public void hostRemoved(String hostname, RemovalCause cause) {
+                version.incrementAndGet();
+            }
+        });
+        // warm the cache from the store before recording further changes
+        store.open((hostname, record) -> {
+            if (record == null) {
+                inv.remove(hostname);
             } else {
-                return ReadyJson.SERVICE_UNREACHABLE.getJson();
+                inv.restore(hostname, record);
+            }
+        }, hosts::records);
+        inv.addListener(store);
+        inv.addListener(events);
+        metrics.gauge("inventory.size", "Hosts in the inventory", inv::size);
+        metrics.gauge("inventory.unreachable", "Hosts backed off after failures",
+                      unreachable::size);
+    }
+
+    public CompletionStage<JsonObject> get(String hostname) {
+        CacheEntry entry = inv.get(hostname);
+        if (entry == null) {
+            metrics.miss();
+            if (unreachable.isBackedOff(hostname)) {
+                return CompletableFuture.completedFuture(
+                    ReadyJson.SERVICE_UNREACHABLE.getJson());
             }
+            // copy so that the deadline of one caller does not complete the
+            // fetch shared with the others
+            long start = System.nanoTime();
+            return fetch(hostname, false)
+                .copy()
+                .completeOnTimeout(FetchResult.failure(FetchResult.Outcome.TIMEOUT),
+                                   deadline, TimeUnit.MILLISECONDS)
+                .thenApply(result -> result.isOk()
+                    ? result.getProperties()
+                    : ReadyJson.SERVICE_UNREACHABLE.getJson())
+                .whenComplete((json, error) -> metrics.served(start));
         }
-        return properties;
+        metrics.hit();
+        if (inv.needsRefresh(entry) && entry.startRefresh()) {
+            fetch(hostname, true).thenAccept(result -> {
+                if (!result.isOk()) {
+                    entry.cancelRefresh();
+                }
+            });
+        }
+        return CompletableFuture.completedFuture(entry.getProperties());
+    }
+
+    /**
+     * Fetches the properties of a cached host again, unless it is backed off
+     * or no longer cached.
+     */
+    CompletionStage<FetchResult> refresh(String hostname) {
+        if (inv.peek(hostname) == null || unreachable.isBackedOff(hostname)) {
+            return CompletableFuture.completedFuture(
+                FetchResult.failure(FetchResult.Outcome.REJECTED));
+        }
+        return fetch(hostname, true);
+    }
+
+    private CompletableFuture<FetchResult> fetch(String hostname, boolean refresh) {
+        return fetch(hostname, refresh, null);
+    }
+
+    /**
+     * Fetches the properties of a host, joining the fetch already in flight
+     * for the same host if there is one. Unless refreshing, a host that was
+     * cached by an earlier flight is not fetched again. When a batch is given,
+     * the record fetched is put there instead of in the inventory.
+     */
+    private CompletableFuture<FetchResult> fetch(String hostname, boolean refresh,
+                                                 Map<String, HostRecord> batch) {
+        CompletableFuture<FetchResult> created = new CompletableFuture<>();
+        CompletableFuture<FetchResult> running =
+            inFlight.putIfAbsent(hostname, created);
+        if (running != null) {
+            metrics.coalesce();
+            return running;
+        }
+        // the previous flight may have finished since our cache miss
+        CacheEntry cached = refresh ? null : inv.get(hostname);
+        if (cached != null) {
+            inFlight.remove(hostname, created);
+            created.complete(FetchResult.ok(cached.getProperties()));
+            return created;
+        }
+        metrics.fetch();
+        // a refresh only asks for what changed since the cached version
+        CacheEntry known = refresh ? inv.peek(hostname) : null;
+        client.fetch(hostname, known == null ? null : known.getRecord())
+              .exceptionally(FetchResult::failure)
+              .whenComplete((fetched, error) -> {
+            // whatever fails below, the flight ends so later lookups fetch again
+            FetchResult result = error == null ? fetched : FetchResult.failure(error);
+            try {
+                if (result.isOk()) {
+                    unreachable.succeeded(hostname);
+                    // a refresh does not bring back a host removed meanwhile
+                    HostRecord record = HostRecord.of(result.getProperties(),
+                                                      result.getVersion());
+                    if (batch != null) {
+                        batch.put(hostname, record);
+                    } else if (!refresh || inv.peek(hostname) != null) {
+                        inv.put(hostname, record);
+                    }
+                } else if (result.isHostFailure()) {
+                    unreachable.failed(hostname);
+                    events.hostUnreachable(hostname, result.getOutcome());
+                }
+            } catch (RuntimeException e) {
+                // the callers still get the properties that were fetched
+                LOGGER.log(Level.WARNING, "Could not store the properties of "
+                    + hostname, e);
+            } finally {
+                inFlight.remove(hostname, created);
+                created.complete(result);
+            }
+        });
+        return created;
     }
 
     public void add(String hostname, JsonObject systemProps) {
-        inv.putIfAbsent(hostname, systemProps);
+        inv.put(hostname, HostRecord.of(systemProps));
+    }
+
+    /**
+     * Fetches the properties of many hosts in parallel, with at most
+     * inventory.bulk.concurrency fetches running at once. Each outcome is
+     * passed to the listener as soon as it is known, and the hosts that
+     * responded are added to the inventory together once all have completed.
+     * Hosts that are backed off are reported unreachable without a fetch.
+     */
+    public CompletionStage<Void> register(Collection<String> hostnames,
+                                          BiConsumer<String, FetchResult> listener) {
+        Queue<String> pending = new ConcurrentLinkedQueue<>(
+            new LinkedHashSet<>(hostnames));
+        Map<String, HostRecord> fetched = new ConcurrentHashMap<>();
+        AtomicInteger remaining = new AtomicInteger(pending.size());
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (pending.isEmpty()) {
+            done.complete(null);
+            return done;
+        }
+        Runnable next = new Runnable() {
+            @Override
+            public void run() {
+                // fetches that complete at once are handled in this loop, the
+                // others continue it from their completion, so the stack does
+                // not grow with the number of hosts
+                String hostname;
+                while ((hostname = pending.poll()) != null) {
+                    String host = hostname;
+                    CompletableFuture<FetchResult> flight =
+                        unreachable.isBackedOff(host)
+                            ? CompletableFuture.completedFuture(
+                                FetchResult.failure(FetchResult.Outcome.UNREACHABLE))
+                            : fetch(host, false, fetched);
+                    if (!flight.isDone()) {
+                        flight.whenComplete((result, error) -> {
+                            completed(host, result);
+                            run();
+                        });
+                        return;
+                    }
+                    completed(host, flight.join());
+                }
+            }
+
+            private void completed(String hostname, FetchResult result) {
+                try {
+                    listener.accept(hostname, result);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Could not report the outcome of "
+                        + hostname, e);
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        try {
+                            fetched.forEach(inv::put);
+                            done.complete(null);
+                        } catch (RuntimeException e) {
+                            done.completeExceptionally(e);
+                        }
+                    }
+                }
+            }
+        };
+        for (int i = 0; i < bulkConcurrency; i++) {
+            next.run();
+        }
+        return done;
     }
 
     public JsonObject list() {
         JsonObjectBuilder systems = Json.createObjectBuilder();
-        inv.forEach((host, props) -> {
-            JsonObject systemProps = Json.createObjectBuilder()
-                                         .add("os.name", props.getString("os.name"))
-                                         .add("user.name", props.getString("user.name"))
-                                         .build();
-            systems.add(host, systemProps);
-        });
-        systems.add("hosts", systems);
-        systems.add("total", inv.size());
-        return systems.build();
+        hosts.records().forEach(
+            (host, record) -> systems.add(host, HostIndex.summary(record)));
+        return Json.createObjectBuilder()
+                   .add("hosts", systems)
+                   .add("total", inv.size())
+                   .build();
     }
 
-    // tag::getSystems[]
-    public JsonObject getSystems(String url) {
-        // inventory content
+    /**
+     * Returns one page of the inventory contents, with links to the
+     * neighbouring pages.
+     */
+    public JsonObject list(PageQuery query, int limit, UriBuilder requestUri) {
+        HostIndex.Page page = hosts.page(query.getCursor(), limit, query.filter());
         JsonObjectBuilder systems = Json.createObjectBuilder();
-        systems.add("*", InventoryUtil.buildLinksForHost("*", url));
+        page.entries.forEach(
+            e -> systems.add(e.getKey(), HostIndex.summary(e.getValue())));
+        return Json.createObjectBuilder()
+                   .add("hosts", systems)
+                   .add("total", inv.size())
+                   .add("links", InventoryUtil.buildPageLinks(requestUri,
+                                                              page.hasPrevious,
+                                                              page.previousCursor,
+                                                              page.nextCursor))
+                   .build();
+    }
+
+    /**
+     * Returns true if the whole listings are small enough to be kept as
+     * snapshots; larger ones are streamed.
+     */
+    boolean isSnapshotted() {
+        return inv.size() <= snapshotMaxHosts;
+    }
 
-        // collecting systems jsons
-        for (String host : inv.keySet()) {
-            systems.add(host, InventoryUtil.buildLinksForHost(host, url));
+    EntityTag listEntityTag() {
+        return new EntityTag(epoch + "-" + version.get());
+    }
+
+    StreamingOutput streamList() {
+        return InventoryStreams.list(hosts, inv.size());
+    }
+
+    StreamingOutput streamListLines() {
+        return InventoryStreams.listLines(hosts);
+    }
+
+    StreamingOutput streamListCbor() {
+        return InventoryStreams.listCbor(hosts, inv.size());
+    }
+
+    /**
+     * Returns the snapshot of the inventory contents for the current version,
+     * building it only if the inventory changed since the last call.
+     */
+    Snapshot listSnapshot() {
+        long current = version.get();
+        Snapshot snapshot = listSnapshot;
+        if (snapshot == null || snapshot.getVersion() != current) {
+            snapshot = new Snapshot(current, epoch + "-" + current, list());
+            listSnapshot = snapshot;
         }
+        return snapshot;
+    }
 
+    public JsonObject stats() {
+        return Json.createObjectBuilder()
+                   .add("version", version.get())
+                   .add("fetches", metrics.getFetches())
+                   .add("coalesced", metrics.getCoalesced())
+                   .add("cache", inv.stats())
+                   .add("unreachable", unreachable.size())
+                   .build();
+    }
+
+    public JsonObject unreachableHosts() {
+        return unreachable.list();
+    }
+
+    public JsonObject trippedHosts() {
+        return breakers.list();
+    }
+
+    // tag::getSystems[]
+    public JsonObject getSystems(String url) {
+        // inventory content and the links of every system, built as the
+        // systems were added
+        return getSystemsSnapshot(url).getJson();
+    }
+
+    Snapshot getSystemsSnapshot(String url) {
+        return links.snapshot(url);
+    }
+
+    EntityTag systemsEntityTag(String url) {
+        return links.entityTag(url);
+    }
+
+    StreamingOutput streamSystems(String url) {
+        return InventoryStreams.systems(hosts, links, url);
+    }
+
+    StreamingOutput streamSystemsLines(String url) {
+        return InventoryStreams.systemsLines(hosts, links, url);
+    }
+
+    StreamingOutput streamSystemsCbor(String url) {
+        return InventoryStreams.systemsCbor(hosts, links, url);
+    }
+
+    /**
+     * Returns the links of one page of systems. The links of the inventory
+     * contents also point to the neighbouring pages.
+     */
+    public JsonObject getSystems(String url, PageQuery query, int limit,
+                                 UriBuilder requestUri) {
+        HostIndex.Page page = hosts.page(query.getCursor(), limit, query.filter());
+        JsonArrayBuilder contentLinks = Json.createArrayBuilder(
+            InventoryUtil.buildLinksForHost("*", url));
+        InventoryUtil.buildPageLinks(requestUri, page.hasPrevious,
+                                     page.previousCursor, page.nextCursor)
+                     .forEach(contentLinks::add);
+        JsonObjectBuilder systems = Json.createObjectBuilder();
+        systems.add("*", contentLinks);
+        page.entries.forEach(e -> systems.add(e.getKey(),
+                                              links.links(url, e.getKey())));
         return systems.build();
     }
     // end::getSystems[]
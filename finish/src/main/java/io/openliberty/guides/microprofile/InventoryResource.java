@@ -1,6 +1,6 @@
 // tag::copyright[]
 /*******************************************************************************
- * Copyright (c) 2017, 2022 IBM Corporation and others.
+ * Copyright (c) 2017, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -11,17 +11,50 @@
 // end::copyright[]
 package io.openliberty.guides.microprofile;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.json.Json;
 import jakarta.json.JsonArray;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.BeanParam;
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.openliberty.guides.microprofile.cluster.InventoryCluster;
+import io.openliberty.guides.microprofile.util.Cbor;
+import io.openliberty.guides.microprofile.util.Compression;
+import io.openliberty.guides.microprofile.util.FetchResult;
+import io.openliberty.guides.microprofile.util.InventoryMetrics;
 
 @ApplicationScoped
 @Path("hosts")
@@ -31,6 +64,26 @@ public class InventoryResource {
     @Inject
     InventoryManager manager;
 
+    @Inject
+    InventoryMetrics metrics;
+
+    @Inject
+    InventoryEvents events;
+
+    @Inject
+    Compression compression;
+
+    @Inject
+    InventoryCluster cluster;
+
+    @Inject
+    @ConfigProperty(name = "inventory.page.defaultLimit", defaultValue = "100")
+    int defaultPageSize;
+
+    @Inject
+    @ConfigProperty(name = "inventory.page.maxLimit", defaultValue = "1000")
+    int maxPageSize;
+
     // tag::Context[]
     @Context
     // end::Context[]
@@ -38,11 +91,29 @@ public class InventoryResource {
     UriInfo uriInfo;
     // end::UriInfo[]
 
+    @Context
+    HttpHeaders headers;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     // tag::handler[]
-    public JsonObject handler() {
-        return manager.getSystems(uriInfo.getAbsolutePath().toString());
+    public Response handler(@Context Request request,
+                            @BeanParam PageQuery query) {
+        long start = System.nanoTime();
+        try {
+            String url = uriInfo.getAbsolutePath().toString();
+            if (query.isEmpty()) {
+                return manager.isSnapshotted()
+                    ? respond(request, manager.getSystemsSnapshot(url))
+                    : respond(request, manager.systemsEntityTag(url),
+                              manager.streamSystems(url));
+            }
+            return Response.ok(manager.getSystems(url, query, pageSize(query),
+                                                  uriInfo.getRequestUriBuilder()))
+                           .build();
+        } finally {
+            metrics.systems(start);
+        }
     }
     // end::handler[]
 
@@ -50,9 +121,246 @@ public class InventoryResource {
     @Path("{hostname}")
     @Produces(MediaType.APPLICATION_JSON)
     // tag::PropertiesForHost[]
-    public JsonObject getPropertiesForHost(@PathParam("hostname") String hostname) {
-        return (hostname.equals("*")) ? manager.list() : manager.get(hostname);
+    public CompletionStage<Response> getPropertiesForHost(
+        @PathParam("hostname") String hostname, @Context Request request,
+        @BeanParam PageQuery query) {
+        if (!hostname.equals("*")) {
+            if (!cluster.serves(hostname, headers)) {
+                return cluster.route(hostname, uriInfo, headers);
+            }
+            return manager.get(hostname).thenApply(json -> Response.ok(json).build());
+        }
+        long start = System.nanoTime();
+        try {
+            if (query.isEmpty()) {
+                return CompletableFuture.completedFuture(manager.isSnapshotted()
+                    ? respond(request, manager.listSnapshot())
+                    : respond(request, manager.listEntityTag(),
+                              manager.streamList()));
+            }
+            return CompletableFuture.completedFuture(
+                Response.ok(manager.list(query, pageSize(query),
+                                         uriInfo.getRequestUriBuilder()))
+                        .build());
+        } finally {
+            metrics.list(start);
+        }
     }
     // end::PropertiesForHost[]
+
+    @GET
+    @Produces(InventoryStreams.NDJSON)
+    public Response handlerLines(@Context Request request) {
+        String url = uriInfo.getAbsolutePath().toString();
+        return respond(request, lines(manager.systemsEntityTag(url)),
+                       manager.streamSystemsLines(url));
+    }
+
+    @GET
+    @Produces(Cbor.MEDIA_TYPE)
+    public Response handlerCbor(@Context Request request,
+                                @BeanParam PageQuery query) {
+        String url = uriInfo.getAbsolutePath().toString();
+        if (query.isEmpty()) {
+            if (!manager.isSnapshotted()) {
+                return respond(request, cbor(manager.systemsEntityTag(url)),
+                               manager.streamSystemsCbor(url));
+            }
+            Snapshot snapshot = manager.getSystemsSnapshot(url);
+            return respond(request, cbor(snapshot.getEntityTag()),
+                           snapshot.getCbor());
+        }
+        return Response.ok(manager.getSystems(url, query, pageSize(query),
+                                              uriInfo.getRequestUriBuilder()))
+                       .build();
+    }
+
+    @GET
+    @Path("{hostname}")
+    @Produces(Cbor.MEDIA_TYPE)
+    public CompletionStage<Response> getPropertiesForHostCbor(
+        @PathParam("hostname") String hostname, @Context Request request,
+        @BeanParam PageQuery query) {
+        if (!hostname.equals("*")) {
+            if (!cluster.serves(hostname, headers)) {
+                return cluster.route(hostname, uriInfo, headers);
+            }
+            return manager.get(hostname).thenApply(json -> Response.ok(json).build());
+        }
+        if (query.isEmpty()) {
+            if (!manager.isSnapshotted()) {
+                return CompletableFuture.completedFuture(
+                    respond(request, cbor(manager.listEntityTag()),
+                            manager.streamListCbor()));
+            }
+            Snapshot snapshot = manager.listSnapshot();
+            return CompletableFuture.completedFuture(
+                respond(request, cbor(snapshot.getEntityTag()), snapshot.getCbor()));
+        }
+        return CompletableFuture.completedFuture(
+            Response.ok(manager.list(query, pageSize(query),
+                                     uriInfo.getRequestUriBuilder()))
+                    .build());
+    }
+
+    /**
+     * Subscribes to the changes to the inventory. A client that reconnects
+     * with a Last-Event-ID header first gets the events it missed.
+     */
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void events(@Context SseEventSink sink, @Context Sse sse,
+                       @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER)
+                       String lastEventId) {
+        events.subscribe(sink, sse, lastEventId);
+    }
+
+    @GET
+    @Path("{hostname}")
+    @Produces(InventoryStreams.NDJSON)
+    public CompletionStage<Response> getPropertiesForHostLines(
+        @PathParam("hostname") String hostname, @Context Request request) {
+        if (!hostname.equals("*")) {
+            if (!cluster.serves(hostname, headers)) {
+                return cluster.route(hostname, uriInfo, headers);
+            }
+            return manager.get(hostname)
+                          .thenApply(json -> Response.ok(json + "\n").build());
+        }
+        return CompletableFuture.completedFuture(
+            respond(request, lines(manager.listEntityTag()),
+                    manager.streamListLines()));
+    }
+
+    private int pageSize(PageQuery query) {
+        Integer limit = query.getLimit();
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    /**
+     * Answers a conditional request with 304 Not Modified when the client
+     * already holds the snapshot, otherwise with its serialized bytes, which
+     * are gzipped once per snapshot for the clients that accept it.
+     */
+    private Response respond(Request request, Snapshot snapshot) {
+        String coding = coding(snapshot.getBytes());
+        EntityTag tag = Compression.tag(snapshot.getEntityTag(), coding);
+        ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                              .build();
+        }
+        ResponseBuilder response = Compression.GZIP.equals(coding)
+            ? Response.ok(snapshot.getGzipped())
+                      .header(HttpHeaders.CONTENT_ENCODING, coding)
+            : Response.ok(snapshot.getBytes());
+        return response.tag(tag)
+                       .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                       .build();
+    }
+
+    // the entity is compressed as it is written when the client accepts it
+    private Response respond(Request request, EntityTag tag, Object entity) {
+        tag = Compression.tag(tag, coding(entity));
+        ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                              .build();
+        }
+        return Response.ok(entity).tag(tag).build();
+    }
+
+    private String coding(Object entity) {
+        return compression.coding(
+            headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING), entity);
+    }
+
+    // the JSON Lines form of a listing is a different representation
+    private static EntityTag lines(EntityTag tag) {
+        return new EntityTag(tag.getValue() + "-lines");
+    }
+
+    private static EntityTag cbor(EntityTag tag) {
+        return new EntityTag(tag.getValue() + "-cbor");
+    }
+
+    /**
+     * Registers a JSON array of hostnames. The response is a JSON array with
+     * the outcome of each host, written as each fetch completes. The hosts
+     * owned by other inventory nodes are registered with their owner.
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response register(JsonArray hostnames,
+                             @HeaderParam(InventoryCluster.FORWARDED)
+                             String forwardedBy) {
+        Set<String> hosts = new LinkedHashSet<>();
+        for (JsonValue value : hostnames) {
+            if (value.getValueType() != JsonValue.ValueType.STRING) {
+                throw new BadRequestException("Expected an array of hostnames");
+            }
+            hosts.add(((JsonString) value).getString());
+        }
+        int total = hosts.size();
+        BlockingQueue<JsonObject> outcomes = new LinkedBlockingQueue<>();
+        if (forwardedBy == null) {
+            cluster.takeRemote(hosts).forEach(
+                (owner, remote) -> handOff(owner, remote, outcomes));
+        }
+        CompletableFuture<Void> done = manager.register(hosts,
+            (host, result) -> outcomes.add(outcome(host,
+                                                   result.getOutcome().name())))
+            .toCompletableFuture();
+        StreamingOutput body = out -> {
+            try (JsonGenerator generator = Json.createGenerator(out)) {
+                generator.writeStartArray();
+                for (int i = 0; i < total; i++) {
+                    generator.write(outcomes.take());
+                    generator.flush();
+                }
+                done.join();
+                generator.writeEnd();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        return Response.ok(body).build();
+    }
+
+    /**
+     * Registers the hosts with their owner and queues the outcome of each.
+     * The hosts the owner does not answer for, as when it cannot be reached,
+     * are reported unreachable.
+     */
+    private void handOff(String owner, List<String> remote,
+                         BlockingQueue<JsonObject> outcomes) {
+        cluster.handOff(owner, remote).whenComplete((results, error) -> {
+            Set<String> unanswered = new LinkedHashSet<>(remote);
+            if (results != null) {
+                for (JsonObject result : results.getValuesAs(JsonObject.class)) {
+                    if (unanswered.remove(result.getString("hostname", ""))) {
+                        outcomes.add(result);
+                    }
+                }
+            }
+            for (String host : unanswered) {
+                outcomes.add(outcome(host, FetchResult.Outcome.UNREACHABLE.name()));
+            }
+        });
+    }
+
+    private static JsonObject outcome(String hostname, String outcome) {
+        return Json.createObjectBuilder()
+                   .add("hostname", hostname)
+                   .add("outcome", outcome)
+                   .build();
+    }
 }
 // end::InventoryResource[]
@@ -0,0 +1,61 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+import io.openliberty.guides.microprofile.cluster.InventoryCluster;
+
+@ApplicationScoped
+@Path("stats")
+public class InventoryStatsResource {
+
+    @Inject
+    InventoryManager manager;
+
+    @Inject
+    InventoryCluster cluster;
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public JsonObject getStats() {
+        return manager.stats();
+    }
+
+    @GET
+    @Path("unreachable")
+    @Produces(MediaType.APPLICATION_JSON)
+    public JsonObject getUnreachableHosts() {
+        return manager.unreachableHosts();
+    }
+
+    @GET
+    @Path("breakers")
+    @Produces(MediaType.APPLICATION_JSON)
+    public JsonObject getTrippedHosts() {
+        return manager.trippedHosts();
+    }
+
+    @GET
+    @Path("cluster")
+    @Produces(MediaType.APPLICATION_JSON)
+    public JsonObject getCluster() {
+        return cluster.describe();
+    }
+
+}
@@ -0,0 +1,162 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonGeneratorFactory;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+import io.openliberty.guides.microprofile.util.Cbor;
+
+/**
+ * Writes the inventory listings straight from the host and link indexes to
+ * the response, one host at a time, so that the memory used by a response does
+ * not grow with the inventory. Each listing is available as a single JSON
+ * object, as JSON Lines, with one host per line, and as CBOR.
+ */
+final class InventoryStreams {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private static final JsonGeneratorFactory GENERATORS =
+        Json.createGeneratorFactory(Collections.emptyMap());
+
+    private InventoryStreams() {
+    }
+
+    static StreamingOutput list(HostIndex hosts, int total) {
+        return out -> {
+            try (JsonGenerator generator = GENERATORS.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeStartObject("hosts");
+                for (Map.Entry<String, HostRecord> e
+                         : hosts.records().entrySet()) {
+                    generator.writeStartObject(e.getKey())
+                             .write(HostRecord.OS_NAME, e.getValue().getOsName())
+                             .write(HostRecord.USER_NAME,
+                                    e.getValue().getUserName())
+                             .writeEnd();
+                }
+                generator.writeEnd();
+                generator.write("total", total);
+                generator.writeEnd();
+            }
+        };
+    }
+
+    static StreamingOutput listLines(HostIndex hosts) {
+        return out -> {
+            Writer writer = writer(out);
+            for (Map.Entry<String, HostRecord> e : hosts.records().entrySet()) {
+                JsonGenerator generator = GENERATORS.createGenerator(writer);
+                generator.writeStartObject()
+                         .write("hostname", e.getKey())
+                         .write(HostRecord.OS_NAME, e.getValue().getOsName())
+                         .write(HostRecord.USER_NAME, e.getValue().getUserName())
+                         .writeEnd();
+                generator.close();
+                writer.write('\n');
+            }
+            writer.flush();
+        };
+    }
+
+    static StreamingOutput listCbor(HostIndex hosts, int total) {
+        return out -> {
+            OutputStream buffered = new BufferedOutputStream(out);
+            Cbor.writeStartMap(buffered);
+            Cbor.writeKey("hosts", buffered);
+            Cbor.writeStartMap(buffered);
+            for (Map.Entry<String, HostRecord> e : hosts.records().entrySet()) {
+                Cbor.writeKey(e.getKey(), buffered);
+                Cbor.write(HostIndex.summary(e.getValue()), buffered);
+            }
+            Cbor.writeEnd(buffered);
+            Cbor.writeKey("total", buffered);
+            Cbor.write(Json.createValue(total), buffered);
+            Cbor.writeEnd(buffered);
+            buffered.flush();
+        };
+    }
+
+    static StreamingOutput systems(HostIndex hosts, LinkIndex links,
+                                   String baseUrl) {
+        return out -> {
+            try (JsonGenerator generator = GENERATORS.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.write("*", links.links(baseUrl, "*"));
+                for (String hostname : hosts.records().keySet()) {
+                    generator.write(hostname, links.links(baseUrl, hostname));
+                }
+                generator.writeEnd();
+            }
+        };
+    }
+
+    static StreamingOutput systemsLines(HostIndex hosts, LinkIndex links,
+                                        String baseUrl) {
+        return out -> {
+            Writer writer = writer(out);
+            for (String hostname : hosts.records().keySet()) {
+                JsonGenerator generator = GENERATORS.createGenerator(writer);
+                generator.writeStartObject()
+                         .write("hostname", hostname)
+                         .write("links", links.links(baseUrl, hostname))
+                         .writeEnd();
+                generator.close();
+                writer.write('\n');
+            }
+            writer.flush();
+        };
+    }
+
+    static StreamingOutput systemsCbor(HostIndex hosts, LinkIndex links,
+                                       String baseUrl) {
+        return out -> {
+            OutputStream buffered = new BufferedOutputStream(out);
+            Cbor.writeStartMap(buffered);
+            Cbor.writeKey("*", buffered);
+            Cbor.write(links.links(baseUrl, "*"), buffered);
+            for (String hostname : hosts.records().keySet()) {
+                Cbor.writeKey(hostname, buffered);
+                Cbor.write(links.links(baseUrl, hostname), buffered);
+            }
+            Cbor.writeEnd(buffered);
+            buffered.flush();
+        };
+    }
+
+    // the generator of each line closes its writer, which must not close the
+    // response stream
+    private static Writer writer(OutputStream out) {
+        return new FilterWriter(
+            new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,184 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.ws.rs.core.EntityTag;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+import io.openliberty.guides.microprofile.cache.InventoryListener;
+import io.openliberty.guides.microprofile.util.InventoryUtil;
+
+/**
+ * HATEOAS links of every host in the inventory. Since the self link of a host
+ * depends on the base URL the inventory is reached through, the links are
+ * kept for one configured base URL only, and not for whatever Host header a
+ * client sends. For that base URL, the links of a host are built once, and a
+ * snapshot of the assembled links document is reused until the set of hosts
+ * changes. Snapshots for a few other base URLs are kept as well, built
+ * outside the index lock, and the links of single hosts are built on demand
+ * for those.
+ *
+ * <p>The index is filled from the host index on first use. It must be added
+ * to the cache after the host index, so that a host being added is either
+ * already in the host index when the links are filled, or added to the links
+ * afterwards.
+ */
+class LinkIndex implements InventoryListener {
+
+    // base URLs other than the indexed one that get a snapshot of their own,
+    // so that a client sending arbitrary Host headers cannot fill the memory
+    static final int MAX_OTHER_BASE_URLS = 8;
+
+    private final String baseUrl;
+    private final HostIndex hosts;
+    private final JsonArray contentLinks;
+    private final NavigableMap<String, JsonArray> links =
+        new ConcurrentSkipListMap<>();
+    private volatile Snapshot snapshot;
+    private final ConcurrentMap<String, Snapshot> otherSnapshots =
+        new ConcurrentHashMap<>();
+
+    // set, under the index lock, once the links of the indexed hosts are built
+    private volatile boolean filled;
+
+    // prefix of the entity tags, unique to this instance of the index
+    private final String epoch;
+
+    // incremented, under the index lock, whenever a host is added or removed
+    private volatile long version;
+
+    LinkIndex(String epoch, String baseUrl, HostIndex hosts) {
+        this.epoch = epoch;
+        this.baseUrl = baseUrl;
+        this.hosts = hosts;
+        this.contentLinks = InventoryUtil.buildLinksForHost("*", baseUrl);
+    }
+
+    @Override
+    public synchronized void hostAdded(String hostname, HostRecord record) {
+        if (filled) {
+            links.put(hostname, InventoryUtil.buildLinksForHost(hostname, baseUrl));
+        }
+        version++;
+    }
+
+    @Override
+    public synchronized void hostRemoved(String hostname, RemovalCause cause) {
+        links.remove(hostname);
+        version++;
+    }
+
+    /**
+     * Returns the snapshot of the links document for the given base URL.
+     */
+    Snapshot snapshot(String baseUrl) {
+        long current = version;
+        if (!indexes(baseUrl)) {
+            return otherSnapshot(current, baseUrl);
+        }
+        fill();
+        Snapshot last = snapshot;
+        if (last != null && last.getVersion() == current) {
+            return last;
+        }
+        JsonObjectBuilder systems = Json.createObjectBuilder();
+        systems.add("*", contentLinks);
+        links.forEach(systems::add);
+        // the document holds every change up to the version read before it
+        // was built, and possibly later ones
+        last = new Snapshot(current, tag(current, baseUrl), systems.build());
+        snapshot = last;
+        return last;
+    }
+
+    /**
+     * Returns the snapshot of the links document for a base URL that is not
+     * indexed, building it from the host index when the one kept is stale.
+     */
+    private Snapshot otherSnapshot(long current, String baseUrl) {
+        Snapshot last = otherSnapshots.get(baseUrl);
+        if (last != null && last.getVersion() == current) {
+            return last;
+        }
+        JsonObjectBuilder systems = Json.createObjectBuilder();
+        systems.add("*", InventoryUtil.buildLinksForHost("*", baseUrl));
+        for (String hostname : hosts.records().keySet()) {
+            systems.add(hostname,
+                        InventoryUtil.buildLinksForHost(hostname, baseUrl));
+        }
+        Snapshot built = new Snapshot(current, tag(current, baseUrl),
+                                      systems.build());
+        if (last != null || otherSnapshots.size() < MAX_OTHER_BASE_URLS) {
+            otherSnapshots.put(baseUrl, built);
+        }
+        return built;
+    }
+
+    /**
+     * Returns the entity tag of the links document for the given base URL at
+     * the current version.
+     */
+    EntityTag entityTag(String baseUrl) {
+        return new EntityTag(tag(version, baseUrl));
+    }
+
+    private String tag(long version, String baseUrl) {
+        return epoch + "-" + version + "-" + Integer.toHexString(baseUrl.hashCode());
+    }
+
+    /**
+     * Returns the links of a host for the given base URL, reusing the
+     * precomputed links when it is the indexed base URL.
+     */
+    JsonArray links(String baseUrl, String hostname) {
+        if (!indexes(baseUrl)) {
+            return InventoryUtil.buildLinksForHost(hostname, baseUrl);
+        }
+        if (hostname.equals("*")) {
+            return contentLinks;
+        }
+        fill();
+        JsonArray hostLinks = links.get(hostname);
+        return hostLinks != null
+            ? hostLinks
+            : InventoryUtil.buildLinksForHost(hostname, baseUrl);
+    }
+
+    private boolean indexes(String baseUrl) {
+        return this.baseUrl.equals(baseUrl);
+    }
+
+    private void fill() {
+        if (!filled) {
+            fillLocked();
+        }
+    }
+
+    private synchronized void fillLocked() {
+        if (filled) {
+            return;
+        }
+        for (String hostname : hosts.records().keySet()) {
+            links.put(hostname, InventoryUtil.buildLinksForHost(hostname, baseUrl));
+        }
+        filled = true;
+    }
+
+}
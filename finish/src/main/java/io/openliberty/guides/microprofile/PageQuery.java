@@ -0,0 +1,59 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.util.function.Predicate;
+
+import jakarta.ws.rs.QueryParam;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+
+/**
+ * Paging and filtering parameters of the inventory listings.
+ */
+public class PageQuery {
+
+    @QueryParam("cursor")
+    private String cursor;
+
+    @QueryParam("limit")
+    private Integer limit;
+
+    @QueryParam("os.name")
+    private String osName;
+
+    @QueryParam("user.name")
+    private String userName;
+
+    /**
+     * Returns true if no parameter is set and the whole listing is requested.
+     */
+    public boolean isEmpty() {
+        return cursor == null && limit == null && osName == null
+            && userName == null;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    Predicate<HostRecord> filter() {
+        return record ->
+            (osName == null || osName.equals(record.getOsName()))
+            && (userName == null || userName.equals(record.getUserName()));
+    }
+
+}
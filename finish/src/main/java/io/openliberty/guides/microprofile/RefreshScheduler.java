@@ -0,0 +1,173 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.openliberty.guides.microprofile.cache.CacheEntry;
+import io.openliberty.guides.microprofile.cache.InventoryCache;
+
+/**
+ * Re-fetches the properties of the hosts in the inventory in the background,
+ * so that reads are served from memory with fresh data. Every interval, the
+ * hosts are ranked by how often they were read, and their refreshes are spread
+ * over the interval, each at a random point of its own slot. At most
+ * inventory.refresh.rate refreshes start per second and at most
+ * inventory.refresh.concurrency run at once; the least read hosts are the ones
+ * left out when the inventory does not fit in one interval.
+ */
+@ApplicationScoped
+public class RefreshScheduler {
+
+    private static final Logger LOGGER =
+        Logger.getLogger(RefreshScheduler.class.getName());
+
+    private static final long TICK_MILLIS = 100;
+
+    @Inject
+    @ConfigProperty(name = "inventory.refresh.interval", defaultValue = "120")
+    long interval;
+
+    @Inject
+    @ConfigProperty(name = "inventory.refresh.rate", defaultValue = "50")
+    int rate;
+
+    @Inject
+    @ConfigProperty(name = "inventory.refresh.concurrency", defaultValue = "8")
+    int concurrency;
+
+    @Inject
+    InventoryManager manager;
+
+    @Inject
+    InventoryCache inv;
+
+    @Resource
+    ManagedScheduledExecutorService scheduler;
+
+    private static final class Due {
+        final String hostname;
+        final long at;
+
+        Due(String hostname, long at) {
+            this.hostname = hostname;
+            this.at = at;
+        }
+    }
+
+    // only touched by the tick task
+    private final Queue<Due> due = new ArrayDeque<>();
+    private long cycleEnd;
+
+    private Semaphore running;
+    private ScheduledFuture<?> ticks;
+
+    void start(@Observes @Initialized(ApplicationScoped.class) Object context) {
+        if (interval <= 0) {
+            return;
+        }
+        running = new Semaphore(concurrency);
+        ticks = scheduler.scheduleWithFixedDelay(this::tick, TICK_MILLIS,
+                                                 TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (ticks != null) {
+            ticks.cancel(false);
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.nanoTime();
+            if (due.isEmpty() && now - cycleEnd >= 0) {
+                plan(now);
+            }
+            // the budget of one tick keeps the start rate under the limit
+            int budget = Math.max(1, (int) (rate * TICK_MILLIS / 1000));
+            while (budget > 0 && !due.isEmpty() && now - due.peek().at >= 0) {
+                // removed, evicted or expired since the plan
+                if (inv.peek(due.peek().hostname) == null) {
+                    due.poll();
+                    continue;
+                }
+                if (!running.tryAcquire()) {
+                    return;
+                }
+                String hostname = due.poll().hostname;
+                budget--;
+                start(hostname);
+            }
+        } catch (RuntimeException e) {
+            // a failed tick must not cancel the next ones
+            LOGGER.log(Level.WARNING, "Could not refresh the inventory", e);
+        }
+    }
+
+    // holds a permit, given back once the refresh completes or fails to start
+    private void start(String hostname) {
+        try {
+            manager.refresh(hostname)
+                   .whenComplete((result, error) -> running.release());
+        } catch (RuntimeException e) {
+            running.release();
+            throw e;
+        }
+    }
+
+    private void plan(long now) {
+        long length = TimeUnit.SECONDS.toNanos(interval);
+        cycleEnd = now + length;
+
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>();
+        for (String hostname : inv.hostnames()) {
+            CacheEntry entry = inv.peek(hostname);
+            if (entry != null) {
+                ranked.add(Map.entry(hostname, entry.takeReads()));
+            }
+        }
+        ranked.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+
+        int count = (int) Math.min(ranked.size(), (long) rate * interval);
+        if (count == 0) {
+            return;
+        }
+        long slot = length / count;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; i++) {
+            due.add(new Due(ranked.get(i).getKey(),
+                            now + i * slot + random.nextLong(Math.max(1, slot))));
+        }
+    }
+
+}
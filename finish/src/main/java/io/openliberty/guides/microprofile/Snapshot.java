@@ -0,0 +1,92 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonWriter;
+import jakarta.ws.rs.core.EntityTag;
+
+import io.openliberty.guides.microprofile.util.Cbor;
+import io.openliberty.guides.microprofile.util.Compression;
+
+/**
+ * Immutable view of an inventory document at one inventory version, kept
+ * together with its serialized form and a strong entity tag. The gzipped and
+ * CBOR forms are made on first use, so once per version however many clients
+ * ask for them.
+ */
+final class Snapshot {
+
+    private final long version;
+    private final JsonObject json;
+    private final byte[] bytes;
+    private final EntityTag entityTag;
+    private volatile byte[] gzipped;
+    private volatile byte[] cbor;
+
+    Snapshot(long version, String tag, JsonObject json) {
+        this.version = version;
+        this.json = json;
+        this.entityTag = new EntityTag(tag);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonWriter writer = Json.createWriter(out)) {
+            writer.writeObject(json);
+        }
+        this.bytes = out.toByteArray();
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    JsonObject getJson() {
+        return json;
+    }
+
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    byte[] getGzipped() {
+        byte[] result = gzipped;
+        if (result == null) {
+            result = Compression.gzip(bytes);
+            gzipped = result;
+        }
+        return result;
+    }
+
+    byte[] getCbor() {
+        byte[] result = cbor;
+        if (result == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+            try {
+                Cbor.write(json, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            result = out.toByteArray();
+            cbor = result;
+        }
+        return result;
+    }
+
+    EntityTag getEntityTag() {
+        return entityTag;
+    }
+
+}
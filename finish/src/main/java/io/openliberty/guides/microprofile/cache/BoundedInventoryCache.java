@@ -0,0 +1,312 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cache;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+import io.openliberty.guides.microprofile.cache.InventoryListener.RemovalCause;
+
+/**
+ * Cache with a maximum size and an expire-after-write TTL. When the cache is
+ * full, the least recently accessed entry out of a small sample is evicted.
+ * The sample is taken by a cursor that sweeps the whole table over successive
+ * evictions, so reads never contend on a shared access-order list. Expired
+ * entries are removed when read, when sampled for eviction, and by
+ * {@link #expire()}.
+ *
+ * <p>The changes to a host are made under one of a fixed set of striped
+ * locks, and the listeners are notified after the table is updated, still
+ * under that lock, so that they see the changes to a host in order without
+ * running under a lock of the table itself. A listener that fails is logged
+ * and does not undo the change or keep the others from being notified.
+ */
+public class BoundedInventoryCache implements InventoryCache {
+
+    private static final Logger LOGGER =
+        Logger.getLogger(BoundedInventoryCache.class.getName());
+
+    private static final int EVICTION_SAMPLE = 16;
+    private static final int STRIPES = 64;
+
+    private final ConcurrentHashMap<String, CacheEntry> entries =
+        new ConcurrentHashMap<>();
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long refreshNanos;
+    private final boolean keepJson;
+
+    private final List<InventoryListener> listeners =
+        new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<Map.Entry<String, CacheEntry>> cursor;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxSize maximum number of hosts kept
+     * @param ttlNanos time after a write at which an entry expires
+     * @param refreshNanos time after a write at which an entry is due for a
+     *        refresh-ahead, or 0 to disable refreshing
+     * @param keepJson whether an entry keeps the properties it rebuilds on
+     *        its first read, trading memory for the cost of later reads
+     */
+    public BoundedInventoryCache(int maxSize, long ttlNanos, long refreshNanos,
+                                 boolean keepJson) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.refreshNanos = refreshNanos;
+        this.keepJson = keepJson;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public CacheEntry get(String hostname) {
+        CacheEntry entry = entries.get(hostname);
+        long now = System.nanoTime();
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (isExpired(entry, now)) {
+            removeEntry(hostname, entry, RemovalCause.EXPIRED);
+            misses.increment();
+            return null;
+        }
+        entry.touch(now);
+        hits.increment();
+        return entry;
+    }
+
+    @Override
+    public CacheEntry peek(String hostname) {
+        return entries.get(hostname);
+    }
+
+    @Override
+    public boolean needsRefresh(CacheEntry entry) {
+        return refreshNanos > 0
+            && System.nanoTime() - entry.getRefreshAt() >= 0;
+    }
+
+    @Override
+    public void put(String hostname, HostRecord record) {
+        long now = System.nanoTime();
+        put(hostname, new CacheEntry(record, now, now + refreshNanos, keepJson));
+    }
+
+    /**
+     * Adds a host reloaded from storage. An entry younger than the refresh
+     * time keeps its age. An older one is kept for a whole TTL, but is due
+     * for a refresh at a random point of the refresh-ahead window, so that
+     * the reloaded hosts are not all refreshed at once. Without refreshing,
+     * an entry older than the TTL expires at once.
+     */
+    @Override
+    public void restore(String hostname, HostRecord record) {
+        long now = System.nanoTime();
+        long age = TimeUnit.MILLISECONDS.toNanos(
+            Math.max(0, System.currentTimeMillis() - record.getFetchedAt()));
+        if (refreshNanos <= 0) {
+            long writtenAt = now - Math.min(age, ttlNanos);
+            put(hostname, new CacheEntry(record, writtenAt, writtenAt, keepJson));
+        } else if (age < refreshNanos) {
+            put(hostname, new CacheEntry(record, now - age,
+                                         now - age + refreshNanos, keepJson));
+        } else {
+            long window = Math.max(1, ttlNanos - refreshNanos);
+            put(hostname, new CacheEntry(
+                record, now, now + ThreadLocalRandom.current().nextLong(window),
+                keepJson));
+        }
+    }
+
+    private void put(String hostname, CacheEntry entry) {
+        HostRecord record = entry.getRecord();
+        ReentrantLock lock = stripe(hostname);
+        lock.lock();
+        try {
+            CacheEntry previous = entries.put(hostname, entry);
+            // a refresh that found nothing new only renews the entry
+            if (previous == null || !previous.getRecord().equals(record)) {
+                for (InventoryListener listener : listeners) {
+                    try {
+                        if (previous == null) {
+                            listener.hostAdded(hostname, record);
+                        } else {
+                            listener.hostUpdated(hostname, record);
+                        }
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.WARNING,
+                                   "Listener failed on " + hostname, e);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    @Override
+    public void remove(String hostname) {
+        ReentrantLock lock = stripe(hostname);
+        lock.lock();
+        try {
+            if (entries.remove(hostname) != null) {
+                notifyRemoved(hostname, RemovalCause.EXPLICIT);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addListener(InventoryListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public Set<String> hostnames() {
+        return entries.keySet();
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public int expire() {
+        long now = System.nanoTime();
+        int expired = 0;
+        for (Map.Entry<String, CacheEntry> e : entries.entrySet()) {
+            if (isExpired(e.getValue(), now)
+                && removeEntry(e.getKey(), e.getValue(), RemovalCause.EXPIRED)) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    @Override
+    public JsonObject stats() {
+        return Json.createObjectBuilder()
+                   .add("size", entries.size())
+                   .add("maxSize", maxSize)
+                   .add("hits", hits.sum())
+                   .add("misses", misses.sum())
+                   .add("evictions", evictions.sum())
+                   .add("expirations", expirations.sum())
+                   .build();
+    }
+
+    private boolean isExpired(CacheEntry entry, long now) {
+        return now - entry.getWrittenAt() >= ttlNanos;
+    }
+
+    private boolean removeEntry(String hostname, CacheEntry entry,
+                                RemovalCause cause) {
+        ReentrantLock lock = stripe(hostname);
+        lock.lock();
+        try {
+            if (!entries.remove(hostname, entry)) {
+                return false;
+            }
+            if (cause == RemovalCause.EXPIRED) {
+                expirations.increment();
+            } else if (cause == RemovalCause.EVICTED) {
+                evictions.increment();
+            }
+            notifyRemoved(hostname, cause);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // called under the lock of the host
+    private void notifyRemoved(String hostname, RemovalCause cause) {
+        for (InventoryListener listener : listeners) {
+            try {
+                listener.hostRemoved(hostname, cause);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Listener failed on " + hostname, e);
+            }
+        }
+    }
+
+    private ReentrantLock stripe(String hostname) {
+        int h = hostname.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private void evict() {
+        evictionLock.lock();
+        try {
+            long now = System.nanoTime();
+            while (entries.size() > maxSize) {
+                String victim = null;
+                CacheEntry victimEntry = null;
+                for (int i = 0; i < EVICTION_SAMPLE; i++) {
+                    if (cursor == null || !cursor.hasNext()) {
+                        cursor = entries.entrySet().iterator();
+                        if (!cursor.hasNext()) {
+                            return;
+                        }
+                    }
+                    Map.Entry<String, CacheEntry> candidate = cursor.next();
+                    CacheEntry entry = candidate.getValue();
+                    // an expired entry goes first, and frees room by itself
+                    if (isExpired(entry, now)) {
+                        victim = candidate.getKey();
+                        victimEntry = entry;
+                        break;
+                    }
+                    if (victimEntry == null
+                        || entry.getAccessedAt() < victimEntry.getAccessedAt()) {
+                        victim = candidate.getKey();
+                        victimEntry = entry;
+                    }
+                }
+                removeEntry(victim, victimEntry, isExpired(victimEntry, now)
+                    ? RemovalCause.EXPIRED : RemovalCause.EVICTED);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+}
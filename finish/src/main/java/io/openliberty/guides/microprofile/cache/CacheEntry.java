@@ -0,0 +1,104 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.json.JsonObject;
+
+public final class CacheEntry {
+
+    private final HostRecord record;
+    private final boolean keepJson;
+    // the properties rebuilt on the first read, when they are kept
+    private volatile JsonObject json;
+    private final long writtenAt;
+    // when the entry is due for a refresh-ahead
+    private final long refreshAt;
+    private volatile long accessedAt;
+    // reads since the count was last taken; updates may be lost under
+    // contention, which is fine for ranking hosts
+    private int reads;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    CacheEntry(HostRecord record, long writtenAt, long refreshAt,
+               boolean keepJson) {
+        this.record = record;
+        this.keepJson = keepJson;
+        this.writtenAt = writtenAt;
+        this.refreshAt = refreshAt;
+        this.accessedAt = System.nanoTime();
+    }
+
+    public HostRecord getRecord() {
+        return record;
+    }
+
+    /**
+     * Returns the properties of the host, rebuilt from the compact record. If
+     * the cache keeps them, they are rebuilt once, on the first read, so that
+     * the hosts that are read hold both forms while the others stay compact.
+     */
+    public JsonObject getProperties() {
+        if (!keepJson) {
+            return record.toJson();
+        }
+        JsonObject result = json;
+        if (result == null) {
+            result = record.toJson();
+            json = result;
+        }
+        return result;
+    }
+
+    public long getWrittenAt() {
+        return writtenAt;
+    }
+
+    long getRefreshAt() {
+        return refreshAt;
+    }
+
+    long getAccessedAt() {
+        return accessedAt;
+    }
+
+    void touch(long now) {
+        accessedAt = now;
+        reads++;
+    }
+
+    /**
+     * Returns the number of reads since the last call, and resets it.
+     */
+    public int takeReads() {
+        int count = reads;
+        reads = 0;
+        return count;
+    }
+
+    /**
+     * Claims the refresh of this entry. Returns false if another caller has
+     * already claimed it.
+     */
+    public boolean startRefresh() {
+        return refreshing.compareAndSet(false, true);
+    }
+
+    /**
+     * Releases a refresh that did not replace this entry, so it can be retried.
+     */
+    public void cancelRefresh() {
+        refreshing.set(false);
+    }
+
+}
@@ -0,0 +1,173 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+
+/**
+ * Compact, immutable copy of the system properties of a host. The fields read
+ * by the inventory listings are kept as typed fields. The property names are
+ * shared by every host with the same set of properties, and the values of the
+ * properties that take few distinct values are interned so that they are
+ * stored once. The full JSON object is rebuilt only when it is requested. The
+ * version is the entity tag the host sent with the properties, if any, and the
+ * fetch time is when they were read from the host, in milliseconds since the
+ * epoch.
+ */
+public final class HostRecord {
+
+    public static final String OS_NAME = "os.name";
+    public static final String USER_NAME = "user.name";
+
+    // looked up once, since each Json.createObjectBuilder() call looks up the
+    // provider again, which costs more than building the object
+    private static final JsonProvider JSON = JsonProvider.provider();
+
+    // sorted property names, shared by the records that have the same names;
+    // cleared when full, so that the shapes of hosts long gone are dropped
+    private static final int MAX_SHAPES = 1024;
+    private static final Map<List<String>, String[]> SHAPES =
+        new ConcurrentHashMap<>();
+
+    // properties that take few distinct values across the hosts; the others,
+    // such as paths and names, are not interned so as not to fill the string
+    // table with values that only one host has
+    private static final Set<String> SHARED_VALUES = Set.of(
+        OS_NAME, "os.arch", "os.version", "java.version", "java.vendor",
+        "java.vendor.url", "java.vm.name", "java.vm.vendor", "java.vm.version",
+        "java.runtime.name", "java.runtime.version", "java.class.version",
+        "java.specification.version", "java.vm.specification.version",
+        "file.encoding", "file.separator", "path.separator", "line.separator",
+        "user.language", "user.country", "sun.arch.data.model");
+
+    private final String osName;
+    private final String userName;
+    private final String[] names;
+    // a String for string values, otherwise the JsonValue itself
+    private final Object[] values;
+    private final String version;
+    private final long fetchedAt;
+
+    private HostRecord(String osName, String userName, String[] names,
+                       Object[] values, String version, long fetchedAt) {
+        this.osName = osName;
+        this.userName = userName;
+        this.names = names;
+        this.values = values;
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public static HostRecord of(JsonObject properties) {
+        return of(properties, null);
+    }
+
+    public static HostRecord of(JsonObject properties, String version) {
+        return of(properties, version, System.currentTimeMillis());
+    }
+
+    public static HostRecord of(JsonObject properties, String version,
+                                long fetchedAt) {
+        String[] names = properties.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        if (SHAPES.size() >= MAX_SHAPES) {
+            SHAPES.clear();
+        }
+        names = SHAPES.computeIfAbsent(Arrays.asList(names), key -> {
+            String[] shape = key.toArray(new String[0]);
+            for (int i = 0; i < shape.length; i++) {
+                shape[i] = shape[i].intern();
+            }
+            return shape;
+        });
+        Object[] values = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            JsonValue value = properties.get(names[i]);
+            if (value.getValueType() != JsonValue.ValueType.STRING) {
+                values[i] = value;
+            } else if (SHARED_VALUES.contains(names[i])) {
+                values[i] = ((JsonString) value).getString().intern();
+            } else {
+                values[i] = ((JsonString) value).getString();
+            }
+        }
+        return new HostRecord(properties.getString(OS_NAME, ""),
+                              properties.getString(USER_NAME, ""),
+                              names, values, version, fetchedAt);
+    }
+
+    public String getOsName() {
+        return osName;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Returns the properties with a JSON merge patch applied to them.
+     */
+    public JsonObject patch(JsonObject patch) {
+        return JSON.createMergePatch(patch).apply(toJson()).asJsonObject();
+    }
+
+    // the version and the fetch time are left out, so that a host that sent
+    // the same properties again is seen as unchanged
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof HostRecord)) {
+            return false;
+        }
+        HostRecord record = (HostRecord) other;
+        return Arrays.equals(names, record.names)
+            && Arrays.equals(values, record.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(names) + Arrays.hashCode(values);
+    }
+
+    public JsonObject toJson() {
+        JsonObjectBuilder builder = JSON.createObjectBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (values[i] instanceof String) {
+                builder.add(names[i], (String) values[i]);
+            } else {
+                builder.add(names[i], (JsonValue) values[i]);
+            }
+        }
+        return builder.build();
+    }
+
+}
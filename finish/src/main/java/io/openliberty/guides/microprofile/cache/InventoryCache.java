@@ -0,0 +1,64 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cache;
+
+import java.util.Set;
+
+import jakarta.json.JsonObject;
+
+/**
+ * In-memory store of the system properties of the hosts in the inventory.
+ */
+public interface InventoryCache {
+
+    /**
+     * Returns the live entry of a host, or null if the host is not cached or
+     * its entry has expired.
+     */
+    CacheEntry get(String hostname);
+
+    /**
+     * Returns true if the entry is live but old enough to be refreshed ahead
+     * of its expiry.
+     */
+    boolean needsRefresh(CacheEntry entry);
+
+    /**
+     * Returns the entry of a host, live or expired, without counting a read.
+     */
+    CacheEntry peek(String hostname);
+
+    void put(String hostname, HostRecord record);
+
+    /**
+     * Adds a host reloaded from storage, aged from the time its properties
+     * were fetched rather than from now.
+     */
+    void restore(String hostname, HostRecord record);
+
+    void remove(String hostname);
+
+    Set<String> hostnames();
+
+    int size();
+
+    /**
+     * Removes the entries that have expired, which are otherwise only
+     * removed when they are read or evicted, and returns how many there were.
+     */
+    int expire();
+
+    JsonObject stats();
+
+    void addListener(InventoryListener listener);
+
+}
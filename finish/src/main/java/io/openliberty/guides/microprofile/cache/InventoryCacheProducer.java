@@ -0,0 +1,82 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cache;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+@ApplicationScoped
+public class InventoryCacheProducer {
+
+    @Inject
+    @ConfigProperty(name = "inventory.cache.maxSize", defaultValue = "10000")
+    int maxSize;
+
+    @Inject
+    @ConfigProperty(name = "inventory.cache.expireAfterWrite",
+                    defaultValue = "300")
+    long expireAfterWrite;
+
+    @Inject
+    @ConfigProperty(name = "inventory.cache.refreshAfterWrite",
+                    defaultValue = "240")
+    long refreshAfterWrite;
+
+    // keep the properties of a host once rebuilt for a read, which makes the
+    // later reads cheaper and the hosts that are read larger in memory
+    @Inject
+    @ConfigProperty(name = "inventory.cache.keepJson", defaultValue = "false")
+    boolean keepJson;
+
+    // seconds between sweeps of the expired entries, which would otherwise
+    // stay listed until they are read or evicted (0 disables sweeping)
+    @Inject
+    @ConfigProperty(name = "inventory.cache.sweepInterval", defaultValue = "10")
+    long sweepInterval;
+
+    @Resource
+    ManagedScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> sweeps;
+
+    @Produces
+    @ApplicationScoped
+    public InventoryCache cache() {
+        InventoryCache cache =
+            new BoundedInventoryCache(maxSize,
+                                      TimeUnit.SECONDS.toNanos(expireAfterWrite),
+                                      TimeUnit.SECONDS.toNanos(refreshAfterWrite),
+                                      keepJson);
+        if (sweepInterval > 0) {
+            sweeps = scheduler.scheduleWithFixedDelay(cache::expire, sweepInterval,
+                                                      sweepInterval,
+                                                      TimeUnit.SECONDS);
+        }
+        return cache;
+    }
+
+    void close(@Disposes InventoryCache cache) {
+        if (sweeps != null) {
+            sweeps.cancel(false);
+        }
+    }
+
+}
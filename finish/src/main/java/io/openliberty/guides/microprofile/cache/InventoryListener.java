@@ -0,0 +1,34 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cache;
+
+/**
+ * Receives the changes made to an {@link InventoryCache}. The callbacks for a
+ * host are made one at a time and in the order of the changes, so they must
+ * return quickly and must not call back into the cache.
+ */
+public interface InventoryListener {
+
+    enum RemovalCause {
+        EXPLICIT, EXPIRED, EVICTED
+    }
+
+    default void hostAdded(String hostname, HostRecord record) {
+    }
+
+    default void hostUpdated(String hostname, HostRecord record) {
+    }
+
+    default void hostRemoved(String hostname, RemovalCause cause) {
+    }
+
+}
@@ -0,0 +1,123 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Negative cache of hosts whose last fetch failed. A failed host is not
+ * contacted again until its backoff has passed; the backoff doubles with
+ * every consecutive failure up to a maximum.
+ */
+@ApplicationScoped
+public class UnreachableHosts {
+
+    @Inject
+    @ConfigProperty(name = "inventory.unreachable.initialBackoff",
+                    defaultValue = "1000")
+    long initialBackoff;
+
+    @Inject
+    @ConfigProperty(name = "inventory.unreachable.maxBackoff",
+                    defaultValue = "60000")
+    long maxBackoff;
+
+    @Inject
+    @ConfigProperty(name = "inventory.unreachable.maxHosts", defaultValue = "1000")
+    int maxHosts;
+
+    private final ConcurrentHashMap<String, Backoff> hosts =
+        new ConcurrentHashMap<>();
+
+    private static final class Backoff {
+        final int failures;
+        final long retryAt;
+
+        Backoff(int failures, long retryAt) {
+            this.failures = failures;
+            this.retryAt = retryAt;
+        }
+    }
+
+    /**
+     * Returns true if the host failed recently and must not be contacted yet.
+     */
+    public boolean isBackedOff(String hostname) {
+        Backoff backoff = hosts.get(hostname);
+        return backoff != null && System.nanoTime() - backoff.retryAt < 0;
+    }
+
+    public void failed(String hostname) {
+        long now = System.nanoTime();
+        if (!hosts.containsKey(hostname) && hosts.size() >= maxHosts) {
+            makeRoom(now);
+        }
+        hosts.compute(hostname, (host, previous) -> {
+            int failures = previous == null ? 1 : previous.failures + 1;
+            long delay = Math.min(maxBackoff,
+                                  initialBackoff << Math.min(failures - 1, 30));
+            return new Backoff(failures,
+                               now + TimeUnit.MILLISECONDS.toNanos(delay));
+        });
+    }
+
+    public void succeeded(String hostname) {
+        hosts.remove(hostname);
+    }
+
+    public JsonObject list() {
+        long now = System.nanoTime();
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        hosts.forEach((host, backoff) -> {
+            long retryIn = Math.max(0, backoff.retryAt - now);
+            builder.add(host, Json.createObjectBuilder()
+                                  .add("failures", backoff.failures)
+                                  .add("retryIn",
+                                       TimeUnit.NANOSECONDS.toMillis(retryIn)));
+        });
+        return builder.build();
+    }
+
+    public int size() {
+        return hosts.size();
+    }
+
+    // forgets hosts whose backoff ended long ago, then the host retried soonest
+    private void makeRoom(long now) {
+        long stale = TimeUnit.MILLISECONDS.toNanos(maxBackoff);
+        hosts.entrySet().removeIf(e -> now - e.getValue().retryAt > stale);
+        if (hosts.size() < maxHosts) {
+            return;
+        }
+        Map.Entry<String, Backoff> soonest = null;
+        for (Map.Entry<String, Backoff> e : hosts.entrySet()) {
+            if (soonest == null
+                || e.getValue().retryAt - soonest.getValue().retryAt < 0) {
+                soonest = e;
+            }
+        }
+        if (soonest != null) {
+            hosts.remove(soonest.getKey(), soonest.getValue());
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cluster;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring that assigns hostnames to inventory nodes.
+ * Each node is placed on the ring at several points, its virtual nodes, so
+ * that the hosts spread evenly and only about 1/n of them move to or from a
+ * node that joins or leaves.
+ */
+public final class HashRing {
+
+    private final List<String> nodes;
+    // the points of the virtual nodes in ascending order, and their nodes
+    private final long[] points;
+    private final String[] owners;
+
+    public HashRing(Collection<String> nodes, int virtualNodes) {
+        // sorted, so that every member builds the same ring from the same set
+        this.nodes = List.copyOf(new TreeSet<>(nodes));
+        Map<Long, String> ring = new TreeMap<>();
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(node + "#" + i), node);
+            }
+        }
+        points = new long[ring.size()];
+        owners = new String[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> point : ring.entrySet()) {
+            points[i] = point.getKey();
+            owners[i++] = point.getValue();
+        }
+    }
+
+    /**
+     * Returns the node that owns the hostname: the first one at or after its
+     * point on the ring, or null if the ring has no node.
+     */
+    public String owner(String hostname) {
+        if (points.length == 0) {
+            return null;
+        }
+        int i = Arrays.binarySearch(points, hash(hostname));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return owners[i == points.length ? 0 : i];
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    // 64-bit FNV-1a, then the MurmurHash3 finalizer to spread close inputs
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -0,0 +1,318 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cluster;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
+import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.openliberty.guides.microprofile.cache.InventoryCache;
+import io.openliberty.guides.microprofile.util.Compression;
+import io.openliberty.guides.microprofile.util.DecompressionInterceptor;
+
+/**
+ * Splits the inventory between several inventory nodes. Each hostname is
+ * owned by one node of a consistent-hash ring built from the base URLs in
+ * inventory.cluster.nodes, and only its owner fetches and caches it. The
+ * other nodes send a request for the host to the owner, at the self link of
+ * the host there, either redirecting the client or forwarding the request.
+ *
+ * The members are read again from the configuration every
+ * inventory.cluster.checkInterval milliseconds. The hosts this node does not
+ * own, because the members changed or because they were reloaded from the
+ * store, are handed to their owner and dropped from the local inventory.
+ * Without inventory.cluster.nodes or inventory.cluster.self, the node owns
+ * every host.
+ */
+@ApplicationScoped
+public class InventoryCluster {
+
+    /**
+     * Header of the requests sent by a node to the owner of a host, which
+     * serves them itself even if it sees another owner, so that nodes that
+     * do not yet agree on the members cannot send a request back and forth.
+     */
+    public static final String FORWARDED = "Inventory-Forwarded";
+
+    private static final Logger LOGGER =
+        Logger.getLogger(InventoryCluster.class.getName());
+
+    private static final String NODES = "inventory.cluster.nodes";
+
+    // base URL of this node, as it appears in inventory.cluster.nodes
+    @Inject
+    @ConfigProperty(name = "inventory.cluster.self")
+    Optional<String> self;
+
+    @Inject
+    @ConfigProperty(name = "inventory.cluster.virtualNodes", defaultValue = "256")
+    int virtualNodes;
+
+    // "redirect" sends the client to the owner, "forward" asks the owner
+    @Inject
+    @ConfigProperty(name = "inventory.cluster.routing", defaultValue = "redirect")
+    String routing;
+
+    @Inject
+    @ConfigProperty(name = "inventory.cluster.checkInterval", defaultValue = "5000")
+    long checkInterval;
+
+    @Inject
+    @ConfigProperty(name = "inventory.client.connectTimeout", defaultValue = "500")
+    long connectTimeout;
+
+    @Inject
+    @ConfigProperty(name = "inventory.client.readTimeout", defaultValue = "2000")
+    long readTimeout;
+
+    @Inject
+    InventoryCache inv;
+
+    @Resource
+    ManagedScheduledExecutorService scheduler;
+
+    // null when the node runs on its own
+    private volatile HashRing ring;
+    private String selfUrl;
+
+    private Client client;
+    private ScheduledFuture<?> checks;
+
+    @PostConstruct
+    void init() {
+        selfUrl = self.map(InventoryCluster::normalize).orElse(null);
+        client = ClientBuilder.newBuilder()
+                              .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+                              .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
+                              .executorService(scheduler)
+                              .register(DecompressionInterceptor.class)
+                              .build();
+    }
+
+    void start(@Observes @Initialized(ApplicationScoped.class) Object context) {
+        check();
+        if (checkInterval > 0) {
+            checks = scheduler.scheduleWithFixedDelay(this::check, checkInterval,
+                                                      checkInterval,
+                                                      TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (checks != null) {
+            checks.cancel(false);
+        }
+        client.close();
+    }
+
+    /**
+     * Returns true if this node answers for the host: it owns the host, the
+     * node runs on its own, or another node forwarded the request.
+     */
+    public boolean serves(String hostname, HttpHeaders headers) {
+        HashRing current = ring;
+        return current == null
+            || headers.getHeaderString(FORWARDED) != null
+            || selfUrl.equals(current.owner(hostname));
+    }
+
+    /**
+     * Sends a request for a host that this node does not own to the self
+     * link of the host on its owner, with the same query.
+     */
+    public CompletionStage<Response> route(String hostname, UriInfo uriInfo,
+                                           HttpHeaders headers) {
+        URI location = selfLink(ring.owner(hostname), hostname)
+            .replaceQuery(uriInfo.getRequestUri().getRawQuery())
+            .build();
+        if (!"forward".equals(routing)) {
+            return CompletableFuture.completedFuture(
+                Response.temporaryRedirect(location).build());
+        }
+        return client.target(location)
+                     .request()
+                     .accept(headers.getAcceptableMediaTypes()
+                                    .toArray(new MediaType[0]))
+                     .header(HttpHeaders.ACCEPT_ENCODING,
+                             Compression.GZIP + ", " + Compression.DEFLATE)
+                     .header(FORWARDED, selfUrl)
+                     .rx()
+                     .get()
+                     .thenApply(InventoryCluster::relay)
+                     .exceptionally(error -> {
+                         LOGGER.log(Level.FINE, "Could not forward to " + location,
+                                    error);
+                         return Response.status(Response.Status.BAD_GATEWAY)
+                                        .build();
+                     });
+    }
+
+    private static Response relay(Response response) {
+        try (response) {
+            ResponseBuilder relayed = Response.status(response.getStatus());
+            if (response.hasEntity()) {
+                relayed.entity(response.readEntity(byte[].class))
+                       .type(response.getMediaType());
+            }
+            if (response.getEntityTag() != null) {
+                relayed.tag(response.getEntityTag());
+            }
+            return relayed.build();
+        }
+    }
+
+    /**
+     * Removes the hosts that this node does not own from the given ones, and
+     * returns them grouped by owner. Nothing is removed when the node runs on
+     * its own.
+     */
+    public Map<String, List<String>> takeRemote(Collection<String> hostnames) {
+        Map<String, List<String>> remote = new LinkedHashMap<>();
+        HashRing current = ring;
+        if (current == null) {
+            return remote;
+        }
+        hostnames.removeIf(hostname -> {
+            String owner = current.owner(hostname);
+            if (selfUrl.equals(owner)) {
+                return false;
+            }
+            remote.computeIfAbsent(owner, o -> new ArrayList<>()).add(hostname);
+            return true;
+        });
+        return remote;
+    }
+
+    /**
+     * Registers the hosts with their owner, and returns the outcome of each.
+     */
+    public CompletionStage<JsonArray> handOff(String owner,
+                                              Collection<String> hostnames) {
+        JsonArrayBuilder body = Json.createArrayBuilder();
+        hostnames.forEach(body::add);
+        return client.target(hostsUrl(owner))
+                     .request(MediaType.APPLICATION_JSON)
+                     .header(FORWARDED, selfUrl)
+                     .rx()
+                     .post(Entity.json(body.build()), JsonArray.class);
+    }
+
+    public JsonObject describe() {
+        HashRing current = ring;
+        JsonArrayBuilder nodes = Json.createArrayBuilder();
+        if (current != null) {
+            current.getNodes().forEach(nodes::add);
+        }
+        return Json.createObjectBuilder()
+                   .add("self", selfUrl == null ? "" : selfUrl)
+                   .add("nodes", nodes)
+                   .add("owned", inv.size())
+                   .build();
+    }
+
+    private void check() {
+        try {
+            List<String> nodes = new ArrayList<>();
+            ConfigProvider.getConfig()
+                          .getOptionalValue(NODES, String.class)
+                          .ifPresent(value -> {
+                for (String node : value.split(",")) {
+                    if (!node.isBlank()) {
+                        nodes.add(normalize(node));
+                    }
+                }
+            });
+            HashRing current = ring;
+            HashRing next = nodes.isEmpty() || selfUrl == null
+                ? null : new HashRing(nodes, virtualNodes);
+            if (current == null ? next != null
+                : next == null || !current.getNodes().equals(next.getNodes())) {
+                ring = next;
+                LOGGER.info(next == null
+                    ? "Inventory runs on its own"
+                    : "Inventory nodes are " + next.getNodes()
+                        + (next.getNodes().contains(selfUrl)
+                            ? "" : ", without this node " + selfUrl));
+            }
+            rebalance();
+        } catch (RuntimeException e) {
+            // a failed check must not cancel the next ones
+            LOGGER.log(Level.WARNING, "Could not check the inventory nodes", e);
+        }
+    }
+
+    // the new owners fetch the hosts again, rather than trust our copy
+    private void rebalance() {
+        Map<String, List<String>> moved =
+            takeRemote(new ArrayList<>(inv.hostnames()));
+        moved.forEach((owner, hostnames) -> {
+            hostnames.forEach(inv::remove);
+            handOff(owner, hostnames).whenComplete((outcomes, error) -> {
+                if (error != null) {
+                    LOGGER.warning("Could not hand " + hostnames.size()
+                        + " hosts to " + owner + ": " + error);
+                }
+            });
+        });
+    }
+
+    private static UriBuilder hostsUrl(String node) {
+        return UriBuilder.fromUri(node).path("inventory/hosts");
+    }
+
+    // the same self link as the owner puts in its inventory listings
+    private static UriBuilder selfLink(String node, String hostname) {
+        return hostsUrl(node).path(hostname);
+    }
+
+    private static String normalize(String node) {
+        String url = node.trim();
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+}
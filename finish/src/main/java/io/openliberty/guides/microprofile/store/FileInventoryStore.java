@@ -0,0 +1,388 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.json.Json;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonWriter;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+
+/**
+ * Store made of a compacted snapshot file and an append-only log of the
+ * changes made since the snapshot. Changes are queued by the cache listener
+ * callbacks and written by a single background thread. Once the log holds
+ * enough changes, the current inventory is written as the new snapshot and
+ * the log is truncated. At startup both files are memory-mapped and replayed.
+ *
+ * <p>Both files start with a generation number, which each compaction
+ * increments. A log older than the snapshot, as left by a crash between
+ * writing the snapshot and truncating the log, is already in the snapshot and
+ * is not replayed.
+ *
+ * <p>Each record is an operation byte, the hostname as a length-prefixed
+ * UTF-8 string and, for a put, the time the properties were fetched and the
+ * properties as length-prefixed JSON. A record cut short by a crash ends the
+ * replay, and is cut off the log before new records are appended to it. A
+ * batch of records that fails to be written is cut off the same way, and
+ * written again with the next batch.
+ */
+public class FileInventoryStore implements InventoryStore {
+
+    private static final Logger LOGGER =
+        Logger.getLogger(FileInventoryStore.class.getName());
+
+    private static final byte REMOVE = 2;
+    private static final byte PUT_FETCHED = 3;
+
+    // length of the generation number the files start with
+    private static final int HEADER = Long.BYTES;
+
+    // milliseconds before a batch that could not be written is tried again
+    private static final long RETRY_MILLIS = 1000;
+
+    // queued to stop the writer
+    private static final Change CLOSE = new Change(null, null);
+
+    private static final class Change {
+        final String hostname;
+        // null for a removal
+        final HostRecord record;
+
+        Change(String hostname, HostRecord record) {
+            this.hostname = hostname;
+            this.record = record;
+        }
+    }
+
+    private static final class Replay {
+        // -1 when the file has no complete header
+        long generation = -1;
+        int records;
+        // offset just after the last complete record
+        long end;
+    }
+
+    private final Path snapshotFile;
+    private final Path logFile;
+    private final int compactAfter;
+    private final ThreadFactory threads;
+
+    private final BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+    private Supplier<? extends Map<String, HostRecord>> current;
+    private FileChannel log;
+    private int logged;
+    private long generation;
+    // set when the log must be emptied before more records are appended
+    private boolean stale;
+    private Thread writer;
+
+    public FileInventoryStore(Path directory, int compactAfter,
+                              ThreadFactory threads) {
+        this.snapshotFile = directory.resolve("inventory.snapshot");
+        this.logFile = directory.resolve("inventory.log");
+        this.compactAfter = compactAfter;
+        this.threads = threads;
+    }
+
+    @Override
+    public void open(BiConsumer<String, HostRecord> loader,
+                     Supplier<? extends Map<String, HostRecord>> current) {
+        this.current = current;
+        try {
+            Files.createDirectories(logFile.getParent());
+            generation = Math.max(replay(snapshotFile, loader, -1).generation, 0);
+            Replay replayed = replay(logFile, loader, generation);
+            logged = replayed.records;
+            // not opened for appending, since a truncation moves the position
+            // back to the new end, where the next record is written
+            log = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                                   StandardOpenOption.WRITE);
+            if (replayed.generation < generation) {
+                resetLog();
+            } else {
+                log.truncate(replayed.end);
+                log.position(replayed.end);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writer = threads.newThread(this::write);
+        writer.start();
+    }
+
+    @Override
+    public void hostAdded(String hostname, HostRecord record) {
+        changes.add(new Change(hostname, record));
+    }
+
+    @Override
+    public void hostUpdated(String hostname, HostRecord record) {
+        changes.add(new Change(hostname, record));
+    }
+
+    @Override
+    public void hostRemoved(String hostname, RemovalCause cause) {
+        changes.add(new Change(hostname, null));
+    }
+
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        changes.add(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not close " + logFile, e);
+        }
+    }
+
+    private void write() {
+        List<Change> batch = new ArrayList<>();
+        while (true) {
+            try {
+                // a batch left over from a failed write is retried after a
+                // while, together with the changes queued meanwhile
+                Change change = batch.isEmpty()
+                    ? changes.take()
+                    : changes.poll(RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                if (change != null) {
+                    batch.add(change);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            changes.drainTo(batch);
+            boolean closing = batch.remove(CLOSE);
+            try {
+                if (stale) {
+                    resetLog();
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                for (Change change : batch) {
+                    encode(out, change.hostname, change.record);
+                }
+                append(ByteBuffer.wrap(out.toByteArray()));
+                logged += batch.size();
+                batch.clear();
+                if (logged >= compactAfter) {
+                    compact();
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not write " + logFile, e);
+            } catch (RuntimeException e) {
+                // a change that cannot be encoded would fail every retry
+                LOGGER.log(Level.WARNING, "Dropping changes to " + logFile, e);
+                batch.clear();
+            }
+            // whether or not the last batch was written, nothing is written
+            // after closing
+            if (closing) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Appends records to the log, cutting off whatever part of them was
+     * written if they cannot all be.
+     */
+    private void append(ByteBuffer records) throws IOException {
+        long end = log.position();
+        try {
+            while (records.hasRemaining()) {
+                log.write(records);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            log.position(end);
+            try {
+                log.truncate(end);
+            } catch (IOException truncation) {
+                e.addSuppressed(truncation);
+            }
+            throw e;
+        }
+    }
+
+    // every change logged so far is in the current inventory, so the snapshot
+    // replaces the whole log; changes still queued are logged after it
+    private void compact() throws IOException {
+        long next = generation + 1;
+        Path temporary = snapshotFile.resolveSibling("inventory.snapshot.tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeLong(out, next);
+            for (Map.Entry<String, HostRecord> e : current.get().entrySet()) {
+                encode(out, e.getKey(), e.getValue());
+                if (out.size() > 1 << 20) {
+                    channel.write(ByteBuffer.wrap(out.toByteArray()));
+                    out.reset();
+                }
+            }
+            channel.write(ByteBuffer.wrap(out.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+        generation = next;
+        logged = 0;
+        stale = true;
+        resetLog();
+    }
+
+    // empties the log and starts it with the current generation
+    private void resetLog() throws IOException {
+        log.truncate(0);
+        log.position(0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeLong(out, generation);
+        ByteBuffer header = ByteBuffer.wrap(out.toByteArray());
+        while (header.hasRemaining()) {
+            log.write(header);
+        }
+        log.force(false);
+        stale = false;
+    }
+
+    private static void encode(ByteArrayOutputStream out, String hostname,
+                               HostRecord record) {
+        out.write(record == null ? REMOVE : PUT_FETCHED);
+        writeBytes(out, hostname.getBytes(StandardCharsets.UTF_8));
+        if (record != null) {
+            writeLong(out, record.getFetchedAt());
+            ByteArrayOutputStream json = new ByteArrayOutputStream();
+            try (JsonWriter writer = Json.createWriter(json)) {
+                writer.writeObject(record.toJson());
+            }
+            writeBytes(out, json.toByteArray());
+        }
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, byte[] bytes) {
+        int length = bytes.length;
+        out.write(length >>> 24);
+        out.write(length >>> 16);
+        out.write(length >>> 8);
+        out.write(length);
+        out.write(bytes, 0, length);
+    }
+
+    /**
+     * Replays the records of a file, unless its generation is older than the
+     * given one, and returns its generation, how many records were read, and
+     * where the last complete one ends.
+     */
+    private static Replay replay(Path file, BiConsumer<String, HostRecord> loader,
+                                 long oldest)
+        throws IOException {
+        Replay replayed = new Replay();
+        if (!Files.exists(file)) {
+            return replayed;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer =
+                channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER) {
+                return replayed;
+            }
+            replayed.generation = buffer.getLong();
+            replayed.end = HEADER;
+            if (replayed.generation < oldest) {
+                LOGGER.info("Skipping " + file + ", which the snapshot replaces");
+                return replayed;
+            }
+            while (buffer.hasRemaining()) {
+                int start = buffer.position();
+                byte op = buffer.get();
+                boolean put = op == PUT_FETCHED;
+                byte[] host = readBytes(buffer);
+                long fetchedAt = put && host != null
+                    && buffer.remaining() >= Long.BYTES ? buffer.getLong() : -1;
+                byte[] json = put && fetchedAt >= 0 ? readBytes(buffer) : null;
+                if (host == null || (put && json == null)
+                    || (!put && op != REMOVE)) {
+                    LOGGER.warning("Ignoring the incomplete record at offset "
+                        + start + " of " + file);
+                    break;
+                }
+                String hostname = new String(host, StandardCharsets.UTF_8);
+                if (put) {
+                    try (JsonReader reader =
+                             Json.createReader(new ByteArrayInputStream(json))) {
+                        loader.accept(hostname, HostRecord.of(reader.readObject(),
+                                                              null, fetchedAt));
+                    }
+                } else {
+                    loader.accept(hostname, null);
+                }
+                replayed.records++;
+                replayed.end = buffer.position();
+            }
+        }
+        return replayed;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+        int length = buffer.getInt();
+        if (length < 0 || buffer.remaining() < length) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+}
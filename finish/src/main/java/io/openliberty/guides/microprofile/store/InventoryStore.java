@@ -0,0 +1,41 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.store;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+import io.openliberty.guides.microprofile.cache.InventoryListener;
+
+/**
+ * Storage that keeps the inventory across restarts. A store is registered as
+ * a listener of the inventory cache and records the changes it is notified of.
+ */
+public interface InventoryStore extends InventoryListener {
+
+    /**
+     * Passes every stored host to the loader, then starts recording changes.
+     *
+     * @param loader receives the record of each stored host, with the time
+     *        its properties were fetched, in the order they were stored, and
+     *        a null record for a host removed since
+     * @param current supplies the current inventory when the store compacts
+     *        its records
+     */
+    void open(BiConsumer<String, HostRecord> loader,
+              Supplier<? extends Map<String, HostRecord>> current);
+
+    void close();
+
+}
@@ -0,0 +1,59 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.store;
+
+import java.nio.file.Paths;
+
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedThreadFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+@ApplicationScoped
+public class InventoryStoreProducer {
+
+    // "memory" keeps the inventory in memory only, "file" also on disk
+    @Inject
+    @ConfigProperty(name = "inventory.store.mode", defaultValue = "memory")
+    String mode;
+
+    @Inject
+    @ConfigProperty(name = "inventory.store.directory",
+                    defaultValue = "inventory-store")
+    String directory;
+
+    @Inject
+    @ConfigProperty(name = "inventory.store.compactAfter", defaultValue = "10000")
+    int compactAfter;
+
+    @Resource
+    ManagedThreadFactory threads;
+
+    @Produces
+    @ApplicationScoped
+    public InventoryStore store() {
+        if ("file".equals(mode)) {
+            return new FileInventoryStore(Paths.get(directory), compactAfter,
+                                          threads);
+        }
+        return new MemoryInventoryStore();
+    }
+
+    public void close(@Disposes InventoryStore store) {
+        store.close();
+    }
+
+}
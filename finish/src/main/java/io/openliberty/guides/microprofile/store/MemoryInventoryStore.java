@@ -0,0 +1,34 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.store;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+
+/**
+ * Store that keeps nothing, so the inventory starts empty after a restart.
+ */
+public class MemoryInventoryStore implements InventoryStore {
+
+    @Override
+    public void open(BiConsumer<String, HostRecord> loader,
+                     Supplier<? extends Map<String, HostRecord>> current) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -0,0 +1,452 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonParsingException;
+
+/**
+ * Encoding of JSON values in CBOR (RFC 8949). Integers that fit in a long are
+ * written as CBOR integers, other integers as bignums and other numbers as
+ * decimal fractions, so that every number reads back exactly. Objects and
+ * arrays are written with their lengths, except for the maps streamed with
+ * {@link #writeStartMap}, which are of unknown length; the reader accepts
+ * both.
+ */
+public final class Cbor {
+
+    public static final String MEDIA_TYPE = "application/cbor";
+
+    // looked up once, as every call through Json looks the provider up again
+    private static final JsonProvider JSON = JsonProvider.provider();
+
+    private static final int UNSIGNED = 0;
+    private static final int NEGATIVE = 1;
+    private static final int BYTES = 2;
+    private static final int TEXT = 3;
+    private static final int ARRAY = 4;
+    private static final int MAP = 5;
+    private static final int TAG = 6;
+    private static final int SIMPLE = 7;
+
+    private static final int TAG_POSITIVE_BIGNUM = 2;
+    private static final int TAG_NEGATIVE_BIGNUM = 3;
+    private static final int TAG_DECIMAL = 4;
+
+    private static final int FALSE = 0xf4;
+    private static final int TRUE = 0xf5;
+    private static final int NULL = 0xf6;
+    private static final int HALF = 0xf9;
+    private static final int FLOAT = 0xfa;
+    private static final int DOUBLE = 0xfb;
+    private static final int BREAK = 0xff;
+    private static final int INDEFINITE = 31;
+
+    // deepest nesting read, well below what would overflow the stack
+    private static final int MAX_DEPTH = 512;
+
+    private Cbor() {
+    }
+
+    /**
+     * Encodes a map of strings as a CBOR map of text strings.
+     */
+    public static byte[] encode(Map<String, String> values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            head(out, MAP, values.size());
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                text(out, entry.getKey());
+                text(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static void write(JsonValue value, OutputStream out)
+        throws IOException {
+        switch (value.getValueType()) {
+        case OBJECT:
+            JsonObject object = (JsonObject) value;
+            head(out, MAP, object.size());
+            for (Map.Entry<String, JsonValue> entry : object.entrySet()) {
+                text(out, entry.getKey());
+                write(entry.getValue(), out);
+            }
+            break;
+        case ARRAY:
+            JsonArray array = (JsonArray) value;
+            head(out, ARRAY, array.size());
+            for (JsonValue element : array) {
+                write(element, out);
+            }
+            break;
+        case STRING:
+            text(out, ((JsonString) value).getString());
+            break;
+        case NUMBER:
+            number(out, (JsonNumber) value);
+            break;
+        case TRUE:
+            out.write(TRUE);
+            break;
+        case FALSE:
+            out.write(FALSE);
+            break;
+        default:
+            out.write(NULL);
+        }
+    }
+
+    /**
+     * Starts a map of unknown length, for entries written one at a time with
+     * {@link #writeKey} and {@link #write}, and ended with {@link #writeEnd}.
+     */
+    public static void writeStartMap(OutputStream out) throws IOException {
+        out.write(MAP << 5 | INDEFINITE);
+    }
+
+    public static void writeKey(String key, OutputStream out)
+        throws IOException {
+        text(out, key);
+    }
+
+    public static void writeEnd(OutputStream out) throws IOException {
+        out.write(BREAK);
+    }
+
+    private static void number(OutputStream out, JsonNumber number)
+        throws IOException {
+        BigDecimal decimal = number.bigDecimalValue();
+        if (number.isIntegral() && decimal.scale() <= 0) {
+            BigInteger integer = decimal.toBigIntegerExact();
+            if (integer.bitLength() < 64) {
+                long value = integer.longValue();
+                if (value >= 0) {
+                    head(out, UNSIGNED, value);
+                } else {
+                    head(out, NEGATIVE, -1 - value);
+                }
+            } else {
+                bignum(out, integer);
+            }
+            return;
+        }
+        // [exponent, mantissa] with the value mantissa * 10^exponent
+        head(out, TAG, TAG_DECIMAL);
+        head(out, ARRAY, 2);
+        int exponent = -decimal.scale();
+        if (exponent >= 0) {
+            head(out, UNSIGNED, exponent);
+        } else {
+            head(out, NEGATIVE, -1L - exponent);
+        }
+        BigInteger mantissa = decimal.unscaledValue();
+        if (mantissa.bitLength() < 64) {
+            long value = mantissa.longValue();
+            if (value >= 0) {
+                head(out, UNSIGNED, value);
+            } else {
+                head(out, NEGATIVE, -1 - value);
+            }
+        } else {
+            bignum(out, mantissa);
+        }
+    }
+
+    private static void bignum(OutputStream out, BigInteger integer)
+        throws IOException {
+        boolean negative = integer.signum() < 0;
+        BigInteger magnitude = negative ? integer.negate().subtract(BigInteger.ONE)
+                                        : integer;
+        byte[] bytes = magnitude.toByteArray();
+        int skip = bytes[0] == 0 && bytes.length > 1 ? 1 : 0;
+        head(out, TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+        head(out, BYTES, bytes.length - skip);
+        out.write(bytes, skip, bytes.length - skip);
+    }
+
+    private static void text(OutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        head(out, TEXT, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void head(OutputStream out, int major, long argument)
+        throws IOException {
+        int type = major << 5;
+        if (argument >= 0 && argument < 24) {
+            out.write(type | (int) argument);
+        } else if (argument >= 0 && argument <= 0xff) {
+            out.write(type | 24);
+            out.write((int) argument);
+        } else if (argument >= 0 && argument <= 0xffff) {
+            out.write(type | 25);
+            out.write((int) (argument >>> 8));
+            out.write((int) argument);
+        } else if (argument >= 0 && argument <= 0xffffffffL) {
+            out.write(type | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                out.write((int) (argument >>> shift));
+            }
+        } else {
+            // unsigned 64-bit argument
+            out.write(type | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (argument >>> shift));
+            }
+        }
+    }
+
+    /**
+     * Reads one value.
+     *
+     * @throws JsonParsingException if the input is not CBOR that maps to JSON
+     */
+    public static JsonValue read(InputStream in) throws IOException {
+        return read(in, next(in), 0);
+    }
+
+    private static JsonValue read(InputStream in, int initial, int depth)
+        throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw malformed("nested too deeply");
+        }
+        int major = initial >>> 5;
+        int info = initial & 0x1f;
+        switch (major) {
+        case UNSIGNED:
+            return unsigned(argument(in, info));
+        case NEGATIVE:
+            return negative(argument(in, info));
+        case TEXT:
+            return JSON.createValue(text(in, info));
+        case ARRAY:
+            JsonArrayBuilder array = JSON.createArrayBuilder();
+            if (info == INDEFINITE) {
+                for (int next = next(in); next != BREAK; next = next(in)) {
+                    array.add(read(in, next, depth + 1));
+                }
+            } else {
+                for (long i = argument(in, info); i > 0; i--) {
+                    array.add(read(in, next(in), depth + 1));
+                }
+            }
+            return array.build();
+        case MAP:
+            JsonObjectBuilder object = JSON.createObjectBuilder();
+            if (info == INDEFINITE) {
+                for (int next = next(in); next != BREAK; next = next(in)) {
+                    object.add(key(in, next), read(in, next(in), depth + 1));
+                }
+            } else {
+                for (long i = argument(in, info); i > 0; i--) {
+                    object.add(key(in, next(in)), read(in, next(in), depth + 1));
+                }
+            }
+            return object.build();
+        case TAG:
+            return tagged(in, argument(in, info), depth);
+        case SIMPLE:
+            return simple(in, initial);
+        default:
+            throw malformed("byte strings are not supported");
+        }
+    }
+
+    private static JsonValue unsigned(long value) {
+        return value >= 0 ? JSON.createValue(value)
+            : JSON.createValue(new BigInteger(Long.toUnsignedString(value)));
+    }
+
+    private static JsonValue negative(long argument) {
+        return argument >= 0 ? JSON.createValue(-1 - argument)
+            : JSON.createValue(new BigInteger(Long.toUnsignedString(argument))
+                                   .add(BigInteger.ONE).negate());
+    }
+
+    private static JsonValue tagged(InputStream in, long tag, int depth)
+        throws IOException {
+        if (tag == TAG_POSITIVE_BIGNUM || tag == TAG_NEGATIVE_BIGNUM) {
+            return JSON.createValue(bignum(in, tag));
+        }
+        if (tag == TAG_DECIMAL) {
+            int initial = next(in);
+            if (initial != (ARRAY << 5 | 2)) {
+                throw malformed("malformed decimal fraction");
+            }
+            BigInteger exponent = integer(in);
+            BigInteger mantissa = integer(in);
+            try {
+                return JSON.createValue(new BigDecimal(
+                    mantissa, exponent.negate().intValueExact()));
+            } catch (ArithmeticException e) {
+                throw malformed("decimal fraction exponent out of range");
+            }
+        }
+        // other tags only qualify the value they enclose
+        return read(in, next(in), depth + 1);
+    }
+
+    private static BigInteger integer(InputStream in) throws IOException {
+        int initial = next(in);
+        int major = initial >>> 5;
+        if (major == TAG) {
+            return bignum(in, argument(in, initial & 0x1f));
+        }
+        if (major != UNSIGNED && major != NEGATIVE) {
+            throw malformed("expected an integer");
+        }
+        JsonValue value = read(in, initial, 0);
+        return ((JsonNumber) value).bigIntegerValue();
+    }
+
+    private static BigInteger bignum(InputStream in, long tag) throws IOException {
+        int initial = next(in);
+        if (initial >>> 5 != BYTES || (initial & 0x1f) == INDEFINITE) {
+            throw malformed("malformed bignum");
+        }
+        BigInteger magnitude = new BigInteger(1,
+            bytes(in, argument(in, initial & 0x1f)));
+        return tag == TAG_NEGATIVE_BIGNUM
+            ? magnitude.add(BigInteger.ONE).negate()
+            : magnitude;
+    }
+
+    private static JsonValue simple(InputStream in, int initial) throws IOException {
+        switch (initial) {
+        case FALSE:
+            return JsonValue.FALSE;
+        case TRUE:
+            return JsonValue.TRUE;
+        case NULL:
+            return JsonValue.NULL;
+        case HALF:
+            return number(half((int) argument(in, 25)));
+        case FLOAT:
+            return number(Float.intBitsToFloat((int) argument(in, 26)));
+        case DOUBLE:
+            return number(Double.longBitsToDouble(argument(in, 27)));
+        default:
+            throw malformed("unsupported simple value " + initial);
+        }
+    }
+
+    // JSON has no NaN nor infinities
+    private static JsonValue number(double value) {
+        if (!Double.isFinite(value)) {
+            throw malformed("unsupported number " + value);
+        }
+        return JSON.createValue(value);
+    }
+
+    private static double half(int bits) {
+        int exponent = (bits >>> 10) & 0x1f;
+        int mantissa = bits & 0x3ff;
+        double value = exponent == 0 ? Math.scalb((double) mantissa, -24)
+            : exponent == 31 ? (mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN)
+            : Math.scalb((double) (mantissa + 1024), exponent - 25);
+        return (bits & 0x8000) != 0 ? -value : value;
+    }
+
+    private static String key(InputStream in, int initial) throws IOException {
+        if (initial >>> 5 != TEXT) {
+            throw malformed("map keys must be text strings");
+        }
+        return text(in, initial & 0x1f);
+    }
+
+    private static String text(InputStream in, int info) throws IOException {
+        if (info != INDEFINITE) {
+            return new String(bytes(in, argument(in, info)), StandardCharsets.UTF_8);
+        }
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        for (int next = next(in); next != BREAK; next = next(in)) {
+            if (next >>> 5 != TEXT || (next & 0x1f) == INDEFINITE) {
+                throw malformed("malformed text string");
+            }
+            chunks.write(bytes(in, argument(in, next & 0x1f)));
+        }
+        return new String(chunks.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(InputStream in, long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw malformed("string too long");
+        }
+        byte[] bytes = in.readNBytes((int) length);
+        if (bytes.length < length) {
+            throw new EOFException("Truncated CBOR string");
+        }
+        return bytes;
+    }
+
+    private static long argument(InputStream in, int info) throws IOException {
+        if (info < 24) {
+            return info;
+        }
+        int size;
+        switch (info) {
+        case 24:
+            size = 1;
+            break;
+        case 25:
+            size = 2;
+            break;
+        case 26:
+            size = 4;
+            break;
+        case 27:
+            size = 8;
+            break;
+        default:
+            throw malformed("unexpected additional information " + info);
+        }
+        long argument = 0;
+        for (int i = 0; i < size; i++) {
+            argument = argument << 8 | next(in);
+        }
+        return argument;
+    }
+
+    private static int next(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Truncated CBOR input");
+        }
+        return b;
+    }
+
+    private static JsonParsingException malformed(String message) {
+        return new JsonParsingException("Malformed CBOR: " + message, null);
+    }
+
+}
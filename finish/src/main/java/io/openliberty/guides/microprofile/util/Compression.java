@@ -0,0 +1,250 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Chooses the content coding of a response from the Accept-Encoding header of
+ * the request, and compresses with deflaters taken from a pool instead of
+ * allocating a new one, with its native buffers, per response.
+ */
+@ApplicationScoped
+public class Compression {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    private static final int POOL_SIZE =
+        Runtime.getRuntime().availableProcessors() * 2;
+
+    // gzip wraps raw deflate data; the deflate coding is the zlib format
+    private static final BlockingQueue<Deflater> RAW =
+        new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final BlockingQueue<Deflater> ZLIB =
+        new ArrayBlockingQueue<>(POOL_SIZE);
+
+    // bodies of fewer bytes go out as they are, compressing them gains little
+    @Inject
+    @ConfigProperty(name = "compression.threshold", defaultValue = "1024")
+    int threshold;
+
+    /**
+     * Returns the coding to send the entity with, or null to send it as it
+     * is. Only bytes and strings are measured against the threshold, strings
+     * by their length in UTF-8; other entities are taken to be large, which is
+     * right for the streamed listings, the only such entities that resources
+     * tag with a coding.
+     */
+    public String coding(String acceptEncoding, Object entity) {
+        long length = entity instanceof byte[] ? ((byte[]) entity).length
+                    : entity instanceof String ? utf8Length((String) entity)
+                    : Long.MAX_VALUE;
+        return length < threshold ? null : negotiate(acceptEncoding);
+    }
+
+    // a character takes one to three bytes, so most strings need no encoding
+    private long utf8Length(String text) {
+        int chars = text.length();
+        if (chars >= threshold || 3L * chars < threshold) {
+            return chars;
+        }
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Returns gzip or deflate, whichever the Accept-Encoding header prefers,
+     * gzip on a tie, or null when it accepts neither.
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        // a coding that is not listed takes the quality of "*", if any
+        float gzip = -1;
+        float deflate = -1;
+        float any = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            float q = quality(parts);
+            if (name.equalsIgnoreCase(GZIP) || name.equalsIgnoreCase("x-gzip")) {
+                gzip = q;
+            } else if (name.equalsIgnoreCase(DEFLATE)) {
+                deflate = q;
+            } else if (name.equals("*")) {
+                any = q;
+            }
+        }
+        gzip = gzip < 0 ? any : gzip;
+        deflate = deflate < 0 ? any : deflate;
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    private static float quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Returns the tag of the representation compressed with the coding, which
+     * is another representation than the uncompressed one.
+     */
+    public static EntityTag tag(EntityTag tag, String coding) {
+        return coding == null ? tag : new EntityTag(tag.getValue() + "-" + coding);
+    }
+
+    public static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (Encoder encoder = encoder(GZIP, out)) {
+            encoder.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns a stream that compresses into the given one with the coding.
+     * {@link Encoder#finish()} ends the compressed data and gives the deflater
+     * back to the pool, without closing the underlying stream.
+     */
+    public static Encoder encoder(String coding, OutputStream out)
+        throws IOException {
+        return new Encoder(out, GZIP.equals(coding));
+    }
+
+    /**
+     * Writes the gzip or zlib format around a pooled deflater.
+     */
+    public static final class Encoder extends DeflaterOutputStream {
+
+        private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+        };
+
+        private final boolean gzip;
+        private final CRC32 crc = new CRC32();
+        private Deflater deflater;
+
+        Encoder(OutputStream out, boolean gzip) throws IOException {
+            this(out, gzip, borrow(gzip));
+        }
+
+        private Encoder(OutputStream out, boolean gzip, Deflater deflater)
+            throws IOException {
+            super(out, deflater, 8192);
+            this.gzip = gzip;
+            this.deflater = deflater;
+            if (gzip) {
+                out.write(GZIP_HEADER);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (deflater == null) {
+                throw new IOException("Stream finished");
+            }
+            super.write(b, off, len);
+            if (gzip) {
+                crc.update(b, off, len);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (deflater == null) {
+                return;
+            }
+            try {
+                super.finish();
+                if (gzip) {
+                    writeInt((int) crc.getValue());
+                    writeInt((int) deflater.getBytesRead());
+                }
+            } finally {
+                release();
+            }
+        }
+
+        // the deflater goes back to the pool, so it must not be ended here
+        @Override
+        public void close() throws IOException {
+            try {
+                finish();
+            } finally {
+                out.close();
+            }
+        }
+
+        /**
+         * Gives the deflater back to the pool if the stream was not finished,
+         * as when writing the body failed.
+         */
+        public void release() {
+            Deflater released = deflater;
+            if (released != null) {
+                deflater = null;
+                released.reset();
+                if (!(gzip ? RAW : ZLIB).offer(released)) {
+                    released.end();
+                }
+            }
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(value);
+            out.write(value >>> 8);
+            out.write(value >>> 16);
+            out.write(value >>> 24);
+        }
+
+        private static Deflater borrow(boolean gzip) {
+            Deflater deflater = (gzip ? RAW : ZLIB).poll();
+            return deflater != null ? deflater
+                                    : new Deflater(Deflater.DEFAULT_COMPRESSION, gzip);
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Compresses the response bodies for the clients that accept it. A response
+ * that already has a Content-Encoding, such as a body kept compressed, is
+ * written as it is. The first bytes of an untagged body are held back until
+ * it reaches the compression threshold, so that a small body is sent as it
+ * is whatever its entity type.
+ *
+ * <p>Entity tags are left alone. A resource that answers conditional requests
+ * chooses the coding itself and tags the compressed representation with
+ * {@link Compression#tag}; a tagged body is compressed only when its tag
+ * names the coding, so that a representation, such as a merge patch, is
+ * never sent compressed under the tag of its uncompressed form.
+ */
+@Provider
+@ApplicationScoped
+public class CompressionInterceptor implements WriterInterceptor {
+
+    @Inject
+    Compression compression;
+
+    @Context
+    HttpHeaders requestHeaders;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context)
+        throws IOException, WebApplicationException {
+        MultivaluedMap<String, Object> headers = context.getHeaders();
+        // events are written one at a time and must not wait in a deflater
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+            || MediaType.SERVER_SENT_EVENTS_TYPE.isCompatible(context.getMediaType())) {
+            context.proceed();
+            return;
+        }
+        vary(headers);
+        String coding = Compression.negotiate(
+            requestHeaders.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        String tag = tag(headers.getFirst(HttpHeaders.ETAG));
+        if (coding == null || (tag != null && !tag.endsWith("-" + coding))) {
+            context.proceed();
+            return;
+        }
+        OutputStream original = context.getOutputStream();
+        // the resource already weighed a tagged body against the threshold
+        ThresholdStream stream = new ThresholdStream(
+            original, headers, coding,
+            tag == null ? compression.getThreshold() : 0);
+        context.setOutputStream(stream);
+        try {
+            context.proceed();
+            stream.finish();
+        } finally {
+            stream.release();
+            context.setOutputStream(original);
+        }
+    }
+
+    private static String tag(Object header) {
+        if (header == null) {
+            return null;
+        }
+        if (header instanceof EntityTag) {
+            return ((EntityTag) header).getValue();
+        }
+        // the value of a header set as text, without the weak prefix and quotes
+        String value = header.toString().trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+            ? value.substring(1, value.length() - 1) : value;
+    }
+
+    private static void vary(MultivaluedMap<String, Object> headers) {
+        List<Object> vary = headers.get(HttpHeaders.VARY);
+        if (vary != null) {
+            for (Object value : vary) {
+                if (value.toString().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                    return;
+                }
+            }
+        }
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Holds the bytes written until there are as many as the threshold, then
+     * sets the Content-Encoding and compresses them and the rest. Nothing
+     * reaches the response before that, so the headers can still be changed.
+     * A body that ends below the threshold is written as it is.
+     */
+    private static final class ThresholdStream extends OutputStream {
+
+        private final OutputStream original;
+        private final MultivaluedMap<String, Object> headers;
+        private final String coding;
+        private final int threshold;
+        private final ByteArrayOutputStream held = new ByteArrayOutputStream();
+        private Compression.Encoder encoder;
+
+        ThresholdStream(OutputStream original,
+                        MultivaluedMap<String, Object> headers, String coding,
+                        int threshold) {
+            this.original = original;
+            this.headers = headers;
+            this.coding = coding;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (encoder == null && held.size() + 1 < threshold) {
+                held.write(b);
+                return;
+            }
+            start();
+            encoder.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length)
+            throws IOException {
+            if (encoder == null && held.size() + length < threshold) {
+                held.write(bytes, offset, length);
+                return;
+            }
+            start();
+            encoder.write(bytes, offset, length);
+        }
+
+        // held bytes stay held, since writing them would commit the headers
+        @Override
+        public void flush() throws IOException {
+            if (encoder != null) {
+                encoder.flush();
+            }
+        }
+
+        private void start() throws IOException {
+            if (encoder != null) {
+                return;
+            }
+            headers.putSingle(HttpHeaders.CONTENT_ENCODING, coding);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            encoder = Compression.encoder(coding, original);
+            held.writeTo(encoder);
+        }
+
+        void finish() throws IOException {
+            if (encoder != null) {
+                encoder.finish();
+            } else {
+                held.writeTo(original);
+            }
+        }
+
+        void release() {
+            if (encoder != null) {
+                encoder.release();
+            }
+        }
+
+    }
+
+}
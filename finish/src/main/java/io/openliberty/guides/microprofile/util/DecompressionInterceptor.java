@@ -0,0 +1,49 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.util;
+
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.ext.ReaderInterceptor;
+import jakarta.ws.rs.ext.ReaderInterceptorContext;
+
+/**
+ * Decompresses the gzip or deflate bodies of the responses read by the
+ * outbound clients, which register it explicitly. It is not a provider, so
+ * that the server does not inflate request bodies of unbounded size.
+ */
+public class DecompressionInterceptor implements ReaderInterceptor {
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context)
+        throws IOException, WebApplicationException {
+        String coding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (coding != null) {
+            coding = coding.trim();
+            if (coding.equalsIgnoreCase(Compression.GZIP)
+                || coding.equalsIgnoreCase("x-gzip")) {
+                context.setInputStream(new GZIPInputStream(context.getInputStream()));
+            } else if (coding.equalsIgnoreCase(Compression.DEFLATE)) {
+                context.setInputStream(new InflaterInputStream(context.getInputStream()));
+            } else {
+                return context.proceed();
+            }
+            context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+        }
+        return context.proceed();
+    }
+
+}
@@ -0,0 +1,104 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.util;
+
+import jakarta.json.JsonObject;
+
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.faulttolerance.exceptions.TimeoutException;
+
+/**
+ * Result of a single request for the system properties of a host: either the
+ * parsed properties, with the version the host tagged them with, or the
+ * reason they could not be retrieved.
+ */
+public final class FetchResult {
+
+    public enum Outcome {
+        OK, UNREACHABLE, TIMEOUT, BAD_STATUS, MALFORMED,
+        // the fetch was not attempted because of a local limit
+        REJECTED
+    }
+
+    private final Outcome outcome;
+    private final JsonObject properties;
+    private final int status;
+    private final String version;
+
+    private FetchResult(Outcome outcome, JsonObject properties, int status,
+                        String version) {
+        this.outcome = outcome;
+        this.properties = properties;
+        this.status = status;
+        this.version = version;
+    }
+
+    public static FetchResult ok(JsonObject properties) {
+        return ok(properties, null);
+    }
+
+    public static FetchResult ok(JsonObject properties, String version) {
+        return new FetchResult(Outcome.OK, properties, 200, version);
+    }
+
+    public static FetchResult failure(Outcome outcome) {
+        return new FetchResult(outcome, null, 0, null);
+    }
+
+    /**
+     * Returns the failure matching an exception that ended a fetch.
+     */
+    public static FetchResult failure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof BulkheadException) {
+                return failure(Outcome.REJECTED);
+            }
+            if (t instanceof TimeoutException
+                || t instanceof java.util.concurrent.TimeoutException) {
+                return failure(Outcome.TIMEOUT);
+            }
+        }
+        return failure(Outcome.UNREACHABLE);
+    }
+
+    public static FetchResult badStatus(int status) {
+        return new FetchResult(Outcome.BAD_STATUS, null, status, null);
+    }
+
+    public boolean isOk() {
+        return outcome == Outcome.OK;
+    }
+
+    /**
+     * Returns true if the remote host is to blame for the failure.
+     */
+    public boolean isHostFailure() {
+        return outcome != Outcome.OK && outcome != Outcome.REJECTED;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public JsonObject getProperties() {
+        return properties;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+}
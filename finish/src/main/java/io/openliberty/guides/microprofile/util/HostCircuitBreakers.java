@@ -0,0 +1,160 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * One circuit breaker per remote host. A breaker opens after a number of
+ * consecutive failed calls to its host and rejects calls until its delay has
+ * passed. It then lets a single trial call through: a success closes it, a
+ * failure opens it again. A trial that reports nothing within the delay is
+ * given up, and the next call is let through as a new trial. Only hosts with
+ * failures are tracked, and at most inventory.breaker.maxHosts of them.
+ */
+@ApplicationScoped
+public class HostCircuitBreakers {
+
+    @Inject
+    @ConfigProperty(name = "inventory.breaker.failureThreshold",
+                    defaultValue = "5")
+    int failureThreshold;
+
+    @Inject
+    @ConfigProperty(name = "inventory.breaker.delay", defaultValue = "10000")
+    long delay;
+
+    @Inject
+    @ConfigProperty(name = "inventory.breaker.maxHosts", defaultValue = "1000")
+    int maxHosts;
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final class Breaker {
+        final State state;
+        final int failures;
+        // end of the delay when open, of the trial call when half open
+        final long openUntil;
+        final long lastFailure;
+
+        Breaker(State state, int failures, long openUntil, long lastFailure) {
+            this.state = state;
+            this.failures = failures;
+            this.openUntil = openUntil;
+            this.lastFailure = lastFailure;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Breaker> breakers =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Returns true if a call to the host may be made now. A true result for a
+     * breaker whose delay has passed claims its single trial call.
+     */
+    public boolean allow(String hostname) {
+        Breaker breaker = breakers.get(hostname);
+        if (breaker == null || breaker.state == State.CLOSED) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - breaker.openUntil < 0) {
+            return false;
+        }
+        return breakers.replace(hostname, breaker,
+                                new Breaker(State.HALF_OPEN, breaker.failures,
+                                            now + TimeUnit.MILLISECONDS.toNanos(delay),
+                                            breaker.lastFailure));
+    }
+
+    public void succeeded(String hostname) {
+        breakers.remove(hostname);
+    }
+
+    public void failed(String hostname) {
+        long now = System.nanoTime();
+        if (!breakers.containsKey(hostname) && breakers.size() >= maxHosts) {
+            makeRoom(now);
+        }
+        breakers.compute(hostname, (host, breaker) -> {
+            int failures = breaker == null ? 1 : breaker.failures + 1;
+            if (failures < failureThreshold
+                && (breaker == null || breaker.state == State.CLOSED)) {
+                return new Breaker(State.CLOSED, failures, 0, now);
+            }
+            return new Breaker(State.OPEN, failures,
+                               now + TimeUnit.MILLISECONDS.toNanos(delay), now);
+        });
+    }
+
+    /**
+     * Releases a trial call that ended without a verdict on the host.
+     */
+    public void abandoned(String hostname) {
+        breakers.computeIfPresent(hostname, (host, breaker) ->
+            breaker.state == State.HALF_OPEN
+                ? new Breaker(State.OPEN, breaker.failures, System.nanoTime(),
+                              breaker.lastFailure)
+                : breaker);
+    }
+
+    /**
+     * Lists the hosts whose breaker is not closed.
+     */
+    public JsonObject list() {
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        breakers.forEach((host, breaker) -> {
+            if (breaker.state != State.CLOSED) {
+                builder.add(host, Json.createObjectBuilder()
+                                      .add("state", breaker.state.name())
+                                      .add("failures", breaker.failures));
+            }
+        });
+        return builder.build();
+    }
+
+    // forgets the hosts that have not failed for a few delays, as a host that
+    // is not called anymore never closes its breaker, then the oldest failure;
+    // a trial call still running keeps its host unless it is the oldest
+    private void makeRoom(long now) {
+        long stale = TimeUnit.MILLISECONDS.toNanos(delay) * 4;
+        breakers.entrySet().removeIf(e -> now - e.getValue().lastFailure > stale
+                                          && (e.getValue().state != State.HALF_OPEN
+                                              || now - e.getValue().openUntil >= 0));
+        if (breakers.size() < maxHosts) {
+            return;
+        }
+        Map.Entry<String, Breaker> oldest = null;
+        for (Map.Entry<String, Breaker> e : breakers.entrySet()) {
+            if (oldest == null
+                || e.getValue().lastFailure - oldest.getValue().lastFailure < 0) {
+                oldest = e;
+            }
+        }
+        if (oldest != null) {
+            breakers.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+}
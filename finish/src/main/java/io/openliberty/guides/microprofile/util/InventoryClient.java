@@ -0,0 +1,268 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.util;
+
+import java.net.SocketTimeoutException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+
+/**
+ * Shared client for the outbound calls to the system service. A single JAX-RS
+ * client is kept for the lifetime of the application so that connections to a
+ * host are kept alive and reused, and the number of concurrent connections to
+ * any one host is capped.
+ */
+@ApplicationScoped
+public class InventoryClient {
+
+    private static final Logger LOGGER =
+        Logger.getLogger(InventoryClient.class.getName());
+
+    private static final MediaType MERGE_PATCH_JSON =
+        new MediaType("application", "merge-patch+json");
+
+    private static final String JSON_FALLBACK = MediaType.APPLICATION_JSON + ";q=0.9";
+
+    // a patch when the host still knows our version, all properties otherwise
+    private static final String[] DELTA_ACCEPT = {
+        MERGE_PATCH_JSON.toString(), JSON_FALLBACK
+    };
+
+    @Inject
+    @ConfigProperty(name = "inventory.client.connectTimeout", defaultValue = "500")
+    long connectTimeout;
+
+    @Inject
+    @ConfigProperty(name = "inventory.client.readTimeout", defaultValue = "2000")
+    long readTimeout;
+
+    @Inject
+    @ConfigProperty(name = "inventory.client.maxConnectionsPerHost",
+                    defaultValue = "5")
+    int maxConnectionsPerHost;
+
+    // names of the properties to fetch, separated by commas; all if not set
+    @Inject
+    @ConfigProperty(name = "inventory.client.keys")
+    Optional<String> keys;
+
+    // "managed" runs outbound calls on the Liberty executor, "virtual" on
+    // virtual threads when the JVM supports them (Java 21 and later)
+    @Inject
+    @ConfigProperty(name = "inventory.client.threads", defaultValue = "managed")
+    String threads;
+
+    // ask for CBOR, which is cheaper to parse, from the hosts that have it
+    @Inject
+    @ConfigProperty(name = "inventory.client.cbor", defaultValue = "true")
+    boolean cbor;
+
+    // ask for gzip or deflate bodies, fewer bytes for larger property sets
+    @Inject
+    @ConfigProperty(name = "inventory.client.compression", defaultValue = "true")
+    boolean compression;
+
+    private String[] accept;
+
+    @Resource
+    ManagedExecutorService managedExecutor;
+
+    @Inject
+    HostCircuitBreakers breakers;
+
+    @Inject
+    InventoryMetrics metrics;
+
+    private ExecutorService virtualExecutor;
+
+    // calls in progress per host; a host is dropped when it has none, so that
+    // hosts seen once do not stay in the map
+    private final ConcurrentMap<String, Integer> calls =
+        new ConcurrentHashMap<>();
+
+    private Client client;
+
+    @PostConstruct
+    void init() {
+        ExecutorService executor = managedExecutor;
+        if ("virtual".equals(threads)) {
+            virtualExecutor = newVirtualThreadExecutor();
+            if (virtualExecutor != null) {
+                executor = virtualExecutor;
+            }
+        }
+        client = ClientBuilder.newBuilder()
+                              .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+                              .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
+                              .executorService(executor)
+                              .register(CborProvider.class)
+                              .register(DecompressionInterceptor.class)
+                              .build();
+        accept = cbor ? new String[] { Cbor.MEDIA_TYPE, JSON_FALLBACK }
+                      : new String[] { MediaType.APPLICATION_JSON };
+    }
+
+    @PreDestroy
+    void close() {
+        client.close();
+        if (virtualExecutor != null) {
+            virtualExecutor.shutdown();
+        }
+    }
+
+    // looked up reflectively so that the application still builds for Java 11
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warning("Virtual threads are not available on Java "
+                + Runtime.version().feature() + ", using the managed executor");
+            return null;
+        }
+    }
+
+    /**
+     * Requests the system properties of a host without blocking the caller.
+     * Given the properties already known for the host, only the changes since
+     * their version are requested and applied to them. The returned stage
+     * completes with the outcome, or exceptionally when
+     * the bulkhead is full or the call times out; the limits can be changed
+     * through the MicroProfile Fault Tolerance configuration properties of
+     * this method.
+     */
+    @Asynchronous
+    @Bulkhead(value = 64, waitingTaskQueue = 256)
+    @Timeout(5000)
+    public CompletionStage<FetchResult> fetch(String hostname, HostRecord known) {
+        if (!breakers.allow(hostname)) {
+            return CompletableFuture.completedFuture(
+                FetchResult.failure(FetchResult.Outcome.REJECTED));
+        }
+        if (!acquire(hostname)) {
+            breakers.abandoned(hostname);
+            return CompletableFuture.completedFuture(
+                FetchResult.failure(FetchResult.Outcome.REJECTED));
+        }
+        long start = System.nanoTime();
+        WebTarget target = client.target(InventoryUtil.buildUri(hostname));
+        if (keys.isPresent()) {
+            target = target.queryParam("keys", keys.get());
+        }
+        boolean delta = known != null && known.getVersion() != null;
+        if (delta) {
+            target = target.queryParam("since", known.getVersion());
+        }
+        Invocation.Builder request = target.request(delta ? DELTA_ACCEPT : accept);
+        if (compression) {
+            request.header(HttpHeaders.ACCEPT_ENCODING,
+                           Compression.GZIP + ", " + Compression.DEFLATE);
+        }
+        return request.rx()
+                      .get()
+                      .handle((response, error) -> {
+                          try {
+                              FetchResult result = error == null
+                                  ? read(response, delta ? known : null)
+                                  : FetchResult.failure(classify(error));
+                              metrics.fetched(result.getOutcome(), start);
+                              if (result.isHostFailure()) {
+                                  breakers.failed(hostname);
+                              } else {
+                                  breakers.succeeded(hostname);
+                              }
+                              return result;
+                          } finally {
+                              release(hostname);
+                          }
+                      });
+    }
+
+    private boolean acquire(String hostname) {
+        boolean[] acquired = new boolean[1];
+        calls.compute(hostname, (host, count) -> {
+            int current = count == null ? 0 : count;
+            acquired[0] = current < maxConnectionsPerHost;
+            return acquired[0] ? current + 1 : count;
+        });
+        return acquired[0];
+    }
+
+    private void release(String hostname) {
+        calls.computeIfPresent(hostname,
+                               (host, count) -> count == 1 ? null : count - 1);
+    }
+
+    private static FetchResult read(Response response, HostRecord known) {
+        try (response) {
+            if (response.getStatus() != 200) {
+                return FetchResult.badStatus(response.getStatus());
+            }
+            EntityTag tag = response.getEntityTag();
+            String version = tag == null ? null : tag.getValue();
+            JsonObject body = response.readEntity(JsonObject.class);
+            // a host that no longer knows our version sends all properties
+            if (known != null
+                && MERGE_PATCH_JSON.isCompatible(response.getMediaType())) {
+                return FetchResult.ok(known.patch(body), version);
+            }
+            return FetchResult.ok(body, version);
+        } catch (Exception e) {
+            return FetchResult.failure(classify(e));
+        }
+    }
+
+    private static FetchResult.Outcome classify(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SocketTimeoutException) {
+                return FetchResult.Outcome.TIMEOUT;
+            }
+            if (t instanceof JsonException || t instanceof ClassCastException) {
+                return FetchResult.Outcome.MALFORMED;
+            }
+        }
+        return FetchResult.Outcome.UNREACHABLE;
+    }
+
+}
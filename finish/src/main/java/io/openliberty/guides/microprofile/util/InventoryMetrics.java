@@ -0,0 +1,146 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.util;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+
+/**
+ * Metrics of the inventory, registered once at startup so that recording a
+ * value is only an update of an existing metric. Hits on the cache are only
+ * counted rather than timed, so that serving a cached host costs one counter
+ * increment and no clock reads.
+ */
+@ApplicationScoped
+public class InventoryMetrics {
+
+    @Inject
+    MetricRegistry registry;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter fetches;
+    private Counter coalesced;
+    private Timer missTimer;
+    private Timer listTimer;
+    private Timer systemsTimer;
+    private Timer[] fetchTimers;
+
+    @PostConstruct
+    void init() {
+        hits = registry.counter(Metadata.builder()
+            .withName("inventory.cache.hits")
+            .withDescription("Requests for a host served from the cache")
+            .build());
+        misses = registry.counter(Metadata.builder()
+            .withName("inventory.cache.misses")
+            .withDescription("Requests for a host that was not cached")
+            .build());
+        fetches = registry.counter(Metadata.builder()
+            .withName("inventory.fetches")
+            .withDescription("Requests made to remote hosts")
+            .build());
+        coalesced = registry.counter(Metadata.builder()
+            .withName("inventory.coalesced")
+            .withDescription("Requests for a host that joined one already in flight")
+            .build());
+        missTimer = timer("inventory.get",
+                           "Time to answer a request for a host that was not cached");
+        listTimer = timer("inventory.list",
+                          "Time to answer a request for the inventory contents");
+        systemsTimer = timer("inventory.systems",
+                             "Time to answer a request for the links of the systems");
+        FetchResult.Outcome[] outcomes = FetchResult.Outcome.values();
+        fetchTimers = new Timer[outcomes.length];
+        for (FetchResult.Outcome outcome : outcomes) {
+            fetchTimers[outcome.ordinal()] = timer("inventory.fetch",
+                "Time of the requests for the properties of a remote host",
+                new Tag("outcome", outcome.name()));
+        }
+    }
+
+    private Timer timer(String name, String description, Tag... tags) {
+        return registry.timer(Metadata.builder()
+                                      .withName(name)
+                                      .withDescription(description)
+                                      .withUnit(MetricUnits.NANOSECONDS)
+                                      .build(), tags);
+    }
+
+    /**
+     * Registers a gauge read only when the metrics are exported.
+     */
+    public void gauge(String name, String description,
+                      Supplier<? extends Number> value) {
+        registry.gauge(Metadata.builder()
+                               .withName(name)
+                               .withDescription(description)
+                               .build(),
+                       () -> value.get());
+    }
+
+    public void hit() {
+        hits.inc();
+    }
+
+    public void miss() {
+        misses.inc();
+    }
+
+    public void fetch() {
+        fetches.inc();
+    }
+
+    public void coalesce() {
+        coalesced.inc();
+    }
+
+    public long getFetches() {
+        return fetches.getCount();
+    }
+
+    public long getCoalesced() {
+        return coalesced.getCount();
+    }
+
+    public void served(long start) {
+        missTimer.update(since(start));
+    }
+
+    public void list(long start) {
+        listTimer.update(since(start));
+    }
+
+    public void systems(long start) {
+        systemsTimer.update(since(start));
+    }
+
+    public void fetched(FetchResult.Outcome outcome, long start) {
+        fetchTimers[outcome.ordinal()].update(since(start));
+    }
+
+    private static Duration since(long start) {
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+}
@@ -1,6 +1,6 @@
 // tag::copyright[]
 /*******************************************************************************
- * Copyright (c) 2017, 2022 IBM Corporation and others.
+ * Copyright (c) 2017, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -11,33 +11,30 @@
 // end::copyright[]
 package io.openliberty.guides.microprofile.util;
 
-import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URL;
 
 import jakarta.json.Json;
 import jakarta.json.JsonArray;
 import jakarta.json.JsonArrayBuilder;
-import jakarta.json.JsonObject;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
-import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.UriBuilder;
 
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
 
 public class InventoryUtil {
 
-    private static final int PORT = 9080;
-    private static final String PROTOCOL = "http";
     private static final String SYSTEM_PROPERTIES = "/system/properties";
 
-    public static JsonObject getProperties(String hostname) {
-        Client client = ClientBuilder.newClient();
-        URI propURI = InventoryUtil.buildUri(hostname);
-        return client.target(propURI)
-                     .request(MediaType.APPLICATION_JSON)
-                     .get(JsonObject.class);
+    // where the system services listen, read once from MicroProfile Config
+    private static final class SystemService {
+        static final Config CONFIG = ConfigProvider.getConfig();
+        static final int PORT = CONFIG.getOptionalValue("system.http.port",
+                                                        Integer.class)
+                                      .orElse(9080);
+        static final String PROTOCOL = CONFIG.getOptionalValue("system.protocol",
+                                                               String.class)
+                                             .orElse("http");
     }
 
     // tag::buildLinksForHost[]
@@ -63,23 +60,42 @@ public class InventoryUtil {
     }
     // end::buildLinksForHost[]
 
-    public static boolean responseOk(String hostname) {
-        try {
-            URL target = new URL(buildUri(hostname).toString());
-            HttpURLConnection http = (HttpURLConnection) target.openConnection();
-            http.setConnectTimeout(50);
-            int response = http.getResponseCode();
-            return (response != 200) ? false : true;
-        } catch (Exception e) {
-            return false;
+    /**
+     * Builds the links from one page of a listing to the previous and next
+     * pages, where they exist. A null previous cursor means that the previous
+     * page is the first one.
+     */
+    public static JsonArray buildPageLinks(UriBuilder requestUri,
+                                           boolean hasPrevious,
+                                           String previousCursor,
+                                           String nextCursor) {
+        JsonArrayBuilder links = Json.createArrayBuilder();
+        if (hasPrevious) {
+            UriBuilder previous = requestUri.clone().replaceQueryParam("cursor");
+            if (previousCursor != null) {
+                previous.queryParam("cursor", previousCursor);
+            }
+            links.add(Json.createObjectBuilder()
+                          .add("href", previous.build().toString())
+                          .add("rel", "prev"));
         }
+        if (nextCursor != null) {
+            links.add(Json.createObjectBuilder()
+                          .add("href", requestUri.clone()
+                                                 .replaceQueryParam("cursor",
+                                                                    nextCursor)
+                                                 .build()
+                                                 .toString())
+                          .add("rel", "next"));
+        }
+        return links.build();
     }
 
-    private static URI buildUri(String hostname) {
+    static URI buildUri(String hostname) {
         return UriBuilder.fromUri(SYSTEM_PROPERTIES)
                 .host(hostname)
-                .port(PORT)
-                .scheme(PROTOCOL)
+                .port(SystemService.PORT)
+                .scheme(SystemService.PROTOCOL)
                 .build();
     }
 
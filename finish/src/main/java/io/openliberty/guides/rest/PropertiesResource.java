@@ -1,6 +1,6 @@
 // tag::copyright[]
 /*******************************************************************************
- * Copyright (c) 2017, 2022 IBM Corporation and others.
+ * Copyright (c) 2017, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -11,16 +11,29 @@
 // end::copyright[]
 package io.openliberty.guides.rest;
 
+import java.util.List;
+
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
 
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Produces;
-import jakarta.json.Json;
-import jakarta.json.JsonObject;
-import jakarta.json.JsonObjectBuilder;
+import jakarta.ws.rs.QueryParam;
 
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.metrics.annotation.Timed;
+
+import io.openliberty.guides.microprofile.util.Cbor;
+import io.openliberty.guides.microprofile.util.Compression;
 
 //tag::class[]
 @RequestScoped
@@ -28,20 +41,104 @@ import jakarta.enterprise.context.RequestScoped;
 public class PropertiesResource {
 // end::class[]
 
+    public static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+    public static final MediaType MERGE_PATCH_JSON_TYPE =
+        new MediaType("application", "merge-patch+json");
+
+    @Inject
+    SystemProperties properties;
+
+    @Inject
+    Compression compression;
+
     // tag::getProperties[]
+    /**
+     * Returns the system properties, or only those named in the keys query
+     * parameters, which may also list names separated by commas. Given the
+     * ETag of a version the client holds, only the changes since are returned
+     * as a JSON merge patch, unless that version is not known anymore or the
+     * client does not list the merge patch type in its Accept header. The
+     * body is compressed when the client accepts it and it is large enough.
+     */
     @GET
-    @Produces(MediaType.APPLICATION_JSON)
-    public JsonObject getProperties() {
-        JsonObjectBuilder builder = Json.createObjectBuilder();
+    @Produces({ MediaType.APPLICATION_JSON, MERGE_PATCH_JSON })
+    @Timed(name = "system.properties", absolute = true, tags = "format=json",
+           description = "Time to answer a request for the system properties")
+    public Response getProperties(@Context Request request,
+                                  @Context HttpHeaders headers,
+                                  @QueryParam("keys") List<String> keys,
+                                  @QueryParam("since") String since,
+                                  @HeaderParam(HttpHeaders.ACCEPT_ENCODING)
+                                  String acceptEncoding) {
+        SystemProperties.Body body = keys.isEmpty()
+            ? properties.current()
+            : properties.project(String.join(",", keys).split(","));
 
-        System.getProperties()
-              .entrySet()
-              .stream()
-              .forEach(entry -> builder.add((String) entry.getKey(),
-                                            (String) entry.getValue()));
+        byte[] patch = since == null || !acceptsPatch(headers)
+            ? null : properties.patch(body, since);
+        if (patch != null) {
+            return Response.ok(patch, MERGE_PATCH_JSON)
+                           .tag(body.getEntityTag())
+                           .build();
+        }
 
-        return builder.build();
+        // the compressed body is another representation, with its own tag;
+        // the gzipped one is kept, others are compressed as they are written
+        String coding = compression.coding(acceptEncoding, body.getBytes());
+        EntityTag tag = Compression.tag(body.getEntityTag(), coding);
+        ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                              .build();
+        }
+        // typed explicitly, since a client asking for a patch prefers the
+        // merge patch type, which the full body must not be labeled with
+        ResponseBuilder response = Compression.GZIP.equals(coding)
+            ? Response.ok(body.getGzipped(), MediaType.APPLICATION_JSON_TYPE)
+                      .header(HttpHeaders.CONTENT_ENCODING, coding)
+            : Response.ok(body.getBytes(), MediaType.APPLICATION_JSON_TYPE);
+        return response.tag(tag)
+                       .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                       .build();
     }
     // end::getProperties[]
 
+    // a wildcard does not count, since a client that does not know about
+    // patches would take the patch for the whole properties
+    private static boolean acceptsPatch(HttpHeaders headers) {
+        for (MediaType type : headers.getAcceptableMediaTypes()) {
+            if (!type.isWildcardType() && !type.isWildcardSubtype()
+                && type.isCompatible(MERGE_PATCH_JSON_TYPE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the system properties, or only those named in the keys query
+     * parameters, encoded in CBOR.
+     */
+    @GET
+    @Produces(Cbor.MEDIA_TYPE)
+    @Timed(name = "system.properties", absolute = true, tags = "format=cbor",
+           description = "Time to answer a request for the system properties")
+    public Response getPropertiesCbor(@Context Request request,
+                                      @QueryParam("keys") List<String> keys,
+                                      @HeaderParam(HttpHeaders.ACCEPT_ENCODING)
+                                      String acceptEncoding) {
+        SystemProperties.Body body = keys.isEmpty()
+            ? properties.current()
+            : properties.project(String.join(",", keys).split(","));
+        byte[] cbor = body.getCbor();
+        EntityTag tag = Compression.tag(body.getCborEntityTag(),
+                                        compression.coding(acceptEncoding, cbor));
+        ResponseBuilder notModified = request.evaluatePreconditions(tag);
+        if (notModified != null) {
+            return notModified.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                              .build();
+        }
+        return Response.ok(cbor).tag(tag).build();
+    }
+
 }
@@ -0,0 +1,274 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonWriter;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.ws.rs.core.EntityTag;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.openliberty.guides.microprofile.util.Cbor;
+import io.openliberty.guides.microprofile.util.Compression;
+
+/**
+ * The system properties of this JVM, kept serialized until they change. The
+ * properties are checked for changes at most once per interval, by comparing
+ * their values with the last ones, and serialized again only when they did
+ * change. The last versions are kept so that a client holding one of them can
+ * be sent only what changed since.
+ */
+@ApplicationScoped
+public class SystemProperties {
+
+    // projections kept per version, for the few key sets clients ask for
+    private static final int MAX_PROJECTIONS = 64;
+
+    @Inject
+    @ConfigProperty(name = "system.properties.checkInterval",
+                    defaultValue = "1000")
+    long checkInterval;
+
+    @Inject
+    @ConfigProperty(name = "system.properties.history", defaultValue = "16")
+    int historySize;
+
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+    // the last versions, written under the lock of this object
+    private final Map<Long, Body> history = new ConcurrentHashMap<>();
+    private volatile long nextCheck;
+    private volatile Body current;
+
+    /**
+     * Returns all the properties.
+     */
+    public Body current() {
+        Body body = current;
+        if (body == null || System.nanoTime() - nextCheck >= 0) {
+            body = check();
+        }
+        return body;
+    }
+
+    /**
+     * Returns the properties with the given names. Names of properties that
+     * are not set are left out.
+     */
+    public Body project(String[] keys) {
+        Body body = current();
+        String[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        String key = String.join(",", sorted);
+        Body projection = body.projections.get(key);
+        if (projection == null) {
+            SortedMap<String, String> values = new TreeMap<>();
+            for (String name : sorted) {
+                String value = body.values.get(name);
+                if (value != null) {
+                    values.put(name, value);
+                }
+            }
+            projection = new Body(body.version,
+                                  body.tag + "-" + Integer.toHexString(key.hashCode()),
+                                  sorted, values);
+            if (body.projections.size() < MAX_PROJECTIONS) {
+                body.projections.putIfAbsent(key, projection);
+            }
+        }
+        return projection;
+    }
+
+    private synchronized Body check() {
+        Body body = current;
+        long now = System.nanoTime();
+        if (body != null && now - nextCheck < 0) {
+            return body;
+        }
+        nextCheck = now + TimeUnit.MILLISECONDS.toNanos(checkInterval);
+        Properties properties = System.getProperties();
+        if (body != null && matches(body.values, properties)) {
+            return body;
+        }
+        SortedMap<String, String> values = new TreeMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            String value = properties.getProperty(name);
+            if (value != null) {
+                values.put(name, value);
+            }
+        }
+        long version = body == null ? 1 : body.version + 1;
+        body = new Body(version, epoch + "-" + version, null, values);
+        history.remove(version - historySize);
+        history.put(body.version, body);
+        current = body;
+        return body;
+    }
+
+    // true if the string properties are exactly the given values, checked
+    // without copying them
+    private static boolean matches(Map<String, String> values,
+                                   Properties properties) {
+        int count = 0;
+        for (Map.Entry<Object, Object> e : properties.entrySet()) {
+            if (e.getKey() instanceof String && e.getValue() instanceof String) {
+                if (!e.getValue().equals(values.get(e.getKey()))) {
+                    return false;
+                }
+                count++;
+            }
+        }
+        return count == values.size();
+    }
+
+    /**
+     * Returns a JSON merge patch from the version with the given tag to the
+     * body: the properties that changed with their new values, and those that
+     * were removed with null. Returns null if that version is not known, for
+     * example because it is too old or from before a restart.
+     */
+    public byte[] patch(Body body, String since) {
+        Long version = version(since);
+        Body previous = version == null ? null : history.get(version);
+        if (previous == null || version > body.version) {
+            return null;
+        }
+        return body.patches.computeIfAbsent(version, v -> {
+            JsonObjectBuilder patch = Json.createObjectBuilder();
+            previous.values.forEach((name, value) -> {
+                if (!body.values.containsKey(name) && body.includes(name)) {
+                    patch.addNull(name);
+                }
+            });
+            body.values.forEach((name, value) -> {
+                if (!value.equals(previous.values.get(name))) {
+                    patch.add(name, value);
+                }
+            });
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonWriter writer = Json.createWriter(out)) {
+                writer.writeObject(patch.build());
+            }
+            return out.toByteArray();
+        });
+    }
+
+    // the version in a tag of this epoch, for the whole properties or for a
+    // projection of them
+    private Long version(String tag) {
+        String prefix = epoch + "-";
+        if (tag == null || !tag.startsWith(prefix)) {
+            return null;
+        }
+        int end = tag.indexOf('-', prefix.length());
+        try {
+            return Long.valueOf(tag.substring(prefix.length(),
+                                              end < 0 ? tag.length() : end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One serialized version of the properties, or of a projection of them,
+     * with its strong entity tag. The gzip and CBOR forms are made on first use.
+     */
+    public static final class Body {
+
+        private final long version;
+        private final String tag;
+        // the sorted names of a projection, null for all the properties
+        private final String[] keys;
+        private final SortedMap<String, String> values;
+        private final byte[] bytes;
+        private final EntityTag entityTag;
+        private final EntityTag cborEntityTag;
+        private final Map<String, Body> projections = new ConcurrentHashMap<>();
+        private final Map<Long, byte[]> patches = new ConcurrentHashMap<>();
+        private volatile byte[] gzipped;
+        private volatile byte[] cbor;
+
+        Body(long version, String tag, String[] keys,
+             SortedMap<String, String> values) {
+            this.version = version;
+            this.tag = tag;
+            this.keys = keys;
+            this.values = Collections.unmodifiableSortedMap(values);
+            this.entityTag = new EntityTag(tag);
+            this.cborEntityTag = new EntityTag(tag + "-cbor");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonGenerator generator = Json.createGenerator(out)) {
+                generator.writeStartObject();
+                values.forEach(generator::write);
+                generator.writeEnd();
+            }
+            this.bytes = out.toByteArray();
+        }
+
+        private boolean includes(String name) {
+            return keys == null || Arrays.binarySearch(keys, name) >= 0;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public SortedMap<String, String> getValues() {
+            return values;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public byte[] getGzipped() {
+            byte[] result = gzipped;
+            if (result == null) {
+                result = Compression.gzip(bytes);
+                gzipped = result;
+            }
+            return result;
+        }
+
+        public byte[] getCbor() {
+            byte[] result = cbor;
+            if (result == null) {
+                result = Cbor.encode(values);
+                cbor = result;
+            }
+            return result;
+        }
+
+        public EntityTag getEntityTag() {
+            return entityTag;
+        }
+
+        public EntityTag getCborEntityTag() {
+            return cborEntityTag;
+        }
+
+    }
+
+}
@@ -0,0 +1,189 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.json.Json;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.SseEventSink;
+
+import org.jboss.resteasy.plugins.providers.sse.SseImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InventoryEventsTest {
+
+    private final InventoryEvents events = new InventoryEvents();
+
+    @BeforeEach
+    public void setup() {
+        events.replaySize = 4;
+        events.maxPending = 2;
+        // runs the sender on the calling thread
+        events.executor = (ManagedExecutorService) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] { ManagedExecutorService.class },
+            (proxy, method, args) -> {
+                if (!method.getName().equals("execute")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                ((Runnable) args[0]).run();
+                return null;
+            });
+    }
+
+    /**
+     * Sink that records what it is sent. Unless it acknowledges writes, every
+     * event sent stays pending, as with a client that stopped reading.
+     */
+    private static final class RecordingSink implements SseEventSink {
+        final List<OutboundSseEvent> sent = new ArrayList<>();
+        final boolean acknowledges;
+        boolean closed;
+
+        RecordingSink(boolean acknowledges) {
+            this.acknowledges = acknowledges;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public CompletionStage<?> send(OutboundSseEvent event) {
+            sent.add(event);
+            return acknowledges ? CompletableFuture.completedFuture(null)
+                                : new CompletableFuture<>();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        List<String> names() {
+            List<String> names = new ArrayList<>();
+            sent.forEach(event -> names.add(event.getName()));
+            return names;
+        }
+    }
+
+    private void add(String hostname) {
+        events.hostAdded(hostname, HostRecord.of(
+            Json.createObjectBuilder().add(HostRecord.OS_NAME, "Linux").build()));
+    }
+
+    private RecordingSink subscribe(String lastEventId) {
+        RecordingSink sink = new RecordingSink(true);
+        events.subscribe(sink, new SseImpl(), lastEventId);
+        return sink;
+    }
+
+    @Test
+    public void testLiveEvents() {
+        RecordingSink sink = subscribe(null);
+        add("a");
+        add("b");
+        assertEquals(List.of(InventoryEvents.ADDED, InventoryEvents.ADDED),
+                     sink.names());
+        assertTrue(sink.sent.get(1).getData().toString().contains("\"b\""));
+    }
+
+    @Test
+    public void testReplay() {
+        RecordingSink first = subscribe(null);
+        add("a");
+        add("b");
+        add("c");
+        String lastEventId = first.sent.get(0).getId();
+
+        RecordingSink second = subscribe(lastEventId);
+        assertEquals(List.of(InventoryEvents.ADDED, InventoryEvents.ADDED),
+                     second.names());
+        assertEquals(first.sent.get(1).getId(), second.sent.get(0).getId());
+        assertEquals(first.sent.get(2).getId(), second.sent.get(1).getId());
+
+        // both get what comes next, once
+        add("d");
+        assertEquals(4, first.sent.size());
+        assertEquals(3, second.sent.size());
+    }
+
+    @Test
+    public void testResetOnOldId() {
+        RecordingSink first = subscribe(null);
+        for (int i = 0; i < 6; i++) {
+            add("host" + i);
+        }
+        // the first event is no longer among the 4 kept
+        RecordingSink second = subscribe(first.sent.get(0).getId());
+        assertEquals(List.of(InventoryEvents.RESET), second.names());
+        assertEquals(first.sent.get(5).getId(), second.sent.get(0).getId());
+    }
+
+    @Test
+    public void testResetOnForeignId() {
+        subscribe(null);
+        add("a");
+        RecordingSink sink = subscribe("0-1");
+        assertEquals(List.of(InventoryEvents.RESET), sink.names());
+        sink = subscribe("not-an-id");
+        assertEquals(List.of(InventoryEvents.RESET), sink.names());
+    }
+
+    @Test
+    public void testReplayDisabled() {
+        events.replaySize = 0;
+        RecordingSink first = subscribe(null);
+        add("a");
+        add("b");
+        assertEquals(2, first.sent.size());
+
+        // nothing is kept, so only a subscriber that missed nothing goes on
+        RecordingSink second = subscribe(first.sent.get(1).getId());
+        assertEquals(List.of(), second.names());
+        RecordingSink third = subscribe(first.sent.get(0).getId());
+        assertEquals(List.of(InventoryEvents.RESET), third.names());
+    }
+
+    @Test
+    public void testSlowSubscriberDropped() {
+        RecordingSink fast = subscribe(null);
+        RecordingSink slow = new RecordingSink(false);
+        events.subscribe(slow, new SseImpl(), null);
+        add("a");
+        add("b");
+        assertFalse(slow.isClosed());
+        add("c");
+        assertTrue(slow.isClosed());
+        assertEquals(2, slow.sent.size());
+
+        // the others are not held back, and the dropped one is forgotten
+        add("d");
+        assertEquals(4, fast.sent.size());
+        assertEquals(2, slow.sent.size());
+    }
+
+}
@@ -0,0 +1,67 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cache;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.Json;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedInventoryCacheTest {
+
+    private final BoundedInventoryCache cache = new BoundedInventoryCache(
+        100, TimeUnit.SECONDS.toNanos(300), TimeUnit.SECONDS.toNanos(240),
+        false);
+
+    private static HostRecord record(long fetchedAt) {
+        return HostRecord.of(Json.createObjectBuilder()
+                                 .add(HostRecord.OS_NAME, "Linux")
+                                 .build(), null, fetchedAt);
+    }
+
+    @Test
+    public void testRestoreRecent() {
+        cache.restore("recent", record(System.currentTimeMillis() - 1000));
+        CacheEntry entry = cache.get("recent");
+        assertNotNull(entry);
+        assertFalse(cache.needsRefresh(entry));
+    }
+
+    @Test
+    public void testRestoreOld() {
+        long now = System.currentTimeMillis();
+        cache.restore("old", record(now - TimeUnit.HOURS.toMillis(1)));
+        cache.restore("unknown", record(0));
+        for (String hostname : new String[] { "old", "unknown" }) {
+            CacheEntry entry = cache.get(hostname);
+            // kept, since the refresh has not had the chance to run yet
+            assertNotNull(entry);
+            long due = entry.getRefreshAt() - System.nanoTime();
+            assertTrue(due < TimeUnit.SECONDS.toNanos(60), hostname);
+        }
+    }
+
+    @Test
+    public void testRestoreWithoutRefresh() {
+        BoundedInventoryCache cache = new BoundedInventoryCache(
+            100, TimeUnit.SECONDS.toNanos(300), 0, false);
+        cache.restore("old", record(0));
+        assertNull(cache.get("old"));
+    }
+
+}
@@ -0,0 +1,107 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.cluster;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HashRingTest {
+
+    private static final int HOSTS = 100000;
+    private static final List<String> NODES = List.of(
+        "http://inventory-a:9080", "http://inventory-b:9080",
+        "http://inventory-c:9080", "http://inventory-d:9080");
+    private static final String JOINING = "http://inventory-e:9080";
+
+    private static String host(int i) {
+        return "host-" + i + ".example.com";
+    }
+
+    @Test
+    public void testEmptyAndSingleNode() {
+        assertNull(new HashRing(List.of(), 128).owner(host(0)));
+        HashRing ring = new HashRing(List.of(NODES.get(0)), 128);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(NODES.get(0), ring.owner(host(i)));
+        }
+    }
+
+    @Test
+    public void testSameRingFromAnyOrder() {
+        HashRing ring = new HashRing(NODES, 128);
+        HashRing reversed = new HashRing(List.of(NODES.get(3), NODES.get(2),
+                                                 NODES.get(1), NODES.get(0)), 128);
+        assertEquals(ring.getNodes(), reversed.getNodes());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ring.owner(host(i)), reversed.owner(host(i)));
+        }
+    }
+
+    /**
+     * The share of a node varies by about 1/sqrt(virtual nodes), so with the
+     * default of 256 each node owns its even share give or take 20%.
+     */
+    @Test
+    public void testDistribution() {
+        HashRing ring = new HashRing(NODES, 256);
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < HOSTS; i++) {
+            owned.merge(ring.owner(host(i)), 1, Integer::sum);
+        }
+        assertEquals(NODES.size(), owned.size());
+        int even = HOSTS / NODES.size();
+        owned.forEach((node, count) ->
+            assertTrue(Math.abs(count - even) < even / 5,
+                       node + " owns " + count + " hosts instead of about " + even));
+    }
+
+    @Test
+    public void testMoveOnJoin() {
+        HashRing before = new HashRing(NODES, 128);
+        List<String> joined = new ArrayList<>(NODES);
+        joined.add(JOINING);
+        HashRing after = new HashRing(joined, 128);
+        int moved = 0;
+        for (int i = 0; i < HOSTS; i++) {
+            String owner = after.owner(host(i));
+            if (!owner.equals(before.owner(host(i)))) {
+                assertEquals(JOINING, owner, "Moved between old nodes: " + host(i));
+                moved++;
+            }
+        }
+        // about 1/5 of the hosts move to the fifth node
+        assertTrue(moved > HOSTS * 15 / 100 && moved < HOSTS * 25 / 100,
+                   moved + " hosts moved");
+    }
+
+    @Test
+    public void testMoveOnLeave() {
+        HashRing before = new HashRing(NODES, 128);
+        HashRing after = new HashRing(NODES.subList(1, NODES.size()), 128);
+        for (int i = 0; i < HOSTS; i++) {
+            String owner = before.owner(host(i));
+            if (!owner.equals(NODES.get(0))) {
+                assertEquals(owner, after.owner(host(i)),
+                             "Moved off a node that stayed: " + host(i));
+            }
+        }
+    }
+
+}
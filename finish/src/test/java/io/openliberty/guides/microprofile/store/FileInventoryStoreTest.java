@@ -0,0 +1,151 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.store;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.json.Json;
+
+import io.openliberty.guides.microprofile.cache.HostRecord;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FileInventoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final Map<String, HostRecord> hosts = new LinkedHashMap<>();
+
+    private FileInventoryStore open() {
+        return open(10000);
+    }
+
+    private FileInventoryStore open(int compactAfter) {
+        hosts.clear();
+        FileInventoryStore store =
+            new FileInventoryStore(directory, compactAfter, Thread::new);
+        store.open((hostname, record) -> {
+            if (record == null) {
+                hosts.remove(hostname);
+            } else {
+                hosts.put(hostname, record);
+            }
+        }, () -> hosts);
+        return store;
+    }
+
+    private static HostRecord record(String osName, long fetchedAt) {
+        return HostRecord.of(Json.createObjectBuilder()
+                                 .add(HostRecord.OS_NAME, osName)
+                                 .build(), null, fetchedAt);
+    }
+
+    @Test
+    public void testReplay() {
+        FileInventoryStore store = open();
+        store.hostAdded("a", record("Linux", 1000));
+        store.hostAdded("b", record("Mac OS X", 2000));
+        store.hostUpdated("a", record("Windows", 3000));
+        store.hostRemoved("b", null);
+        store.close();
+
+        store = open();
+        store.close();
+        assertEquals(1, hosts.size());
+        assertEquals("Windows", hosts.get("a").getOsName());
+        assertEquals(3000, hosts.get("a").getFetchedAt());
+    }
+
+    @Test
+    public void testTornRecord() throws IOException {
+        FileInventoryStore store = open();
+        store.hostAdded("a", record("Linux", 1000));
+        store.close();
+        // a put cut short inside its properties, as left by a crash
+        Files.write(directory.resolve("inventory.log"),
+                    new byte[] {3, 0, 0, 0, 1, 'b', 0, 0, 0, 0, 0, 0, 7, -48,
+                                0, 0, 0, 100, '{'},
+                    StandardOpenOption.APPEND);
+
+        store = open();
+        assertEquals(1, hosts.size());
+        store.hostAdded("c", record("Windows", 3000));
+        store.close();
+
+        store = open();
+        assertEquals(2, hosts.size());
+        store.hostAdded("d", record("Mac OS X", 4000));
+        store.close();
+
+        store = open();
+        store.close();
+        assertEquals("[a, c, d]", hosts.keySet().toString());
+        assertEquals(4000, hosts.get("d").getFetchedAt());
+    }
+
+    // the compactions write the hosts as the inventory has them
+    private void add(FileInventoryStore store, String hostname, HostRecord record) {
+        hosts.put(hostname, record);
+        store.hostAdded(hostname, record);
+    }
+
+    private void remove(FileInventoryStore store, String hostname) {
+        hosts.remove(hostname);
+        store.hostRemoved(hostname, null);
+    }
+
+    @Test
+    public void testCompaction() {
+        FileInventoryStore store = open(2);
+        add(store, "a", record("Linux", 1000));
+        add(store, "b", record("Mac OS X", 2000));
+        store.close();
+        store = open(2);
+        remove(store, "a");
+        store.close();
+
+        store = open();
+        store.close();
+        assertEquals("[b]", hosts.keySet().toString());
+        assertEquals(2000, hosts.get("b").getFetchedAt());
+    }
+
+    @Test
+    public void testLogOlderThanSnapshot() throws IOException {
+        FileInventoryStore store = open();
+        add(store, "a", record("Linux", 1000));
+        remove(store, "a");
+        store.close();
+        byte[] log = Files.readAllBytes(directory.resolve("inventory.log"));
+        store = open(3);
+        add(store, "a", record("Windows", 3000));
+        store.close();
+        // the log as it was when a crash stopped the compaction just after
+        // the snapshot was written
+        Files.write(directory.resolve("inventory.log"), log);
+
+        store = open();
+        store.close();
+        assertEquals("[a]", hosts.keySet().toString());
+        assertEquals("Windows", hosts.get("a").getOsName());
+    }
+
+}
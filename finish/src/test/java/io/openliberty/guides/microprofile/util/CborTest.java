@@ -0,0 +1,252 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package io.openliberty.guides.microprofile.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jakarta.json.Json;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParsingException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CborTest {
+
+    private static byte[] encode(JsonValue value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Cbor.write(value, out);
+        return out.toByteArray();
+    }
+
+    private static JsonValue decode(int... bytes) throws IOException {
+        byte[] input = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            input[i] = (byte) bytes[i];
+        }
+        return Cbor.read(new ByteArrayInputStream(input));
+    }
+
+    private static JsonValue roundTrip(JsonValue value) throws IOException {
+        return Cbor.read(new ByteArrayInputStream(encode(value)));
+    }
+
+    private static void assertNumber(BigDecimal expected) throws IOException {
+        JsonValue value = roundTrip(Json.createValue(expected));
+        assertEquals(0, expected.compareTo(((JsonNumber) value).bigDecimalValue()),
+                     expected + " read back as " + value);
+    }
+
+    @Test
+    public void testIntegers() throws IOException {
+        long[] values = { 0, 1, 23, 24, 255, 256, 65535, 65536, -1, -24, -25,
+                          -256, -257, Integer.MIN_VALUE, Long.MAX_VALUE,
+                          Long.MIN_VALUE };
+        for (long value : values) {
+            assertEquals(Json.createValue(value), roundTrip(Json.createValue(value)),
+                         Long.toString(value));
+        }
+        // the RFC 8949 examples
+        assertArrayEquals(new byte[] { 0x20 }, encode(Json.createValue(-1)));
+        assertArrayEquals(new byte[] { 0x38, 0x63 }, encode(Json.createValue(-100)));
+        assertArrayEquals(new byte[] { 0x39, 0x03, (byte) 0xe7 },
+                          encode(Json.createValue(-1000)));
+    }
+
+    @Test
+    public void testLargeIntegers() throws IOException {
+        // the largest CBOR integers, with the top bit of the argument set
+        assertEquals(new BigInteger("18446744073709551615"),
+                     ((JsonNumber) decode(0x1b, 0xff, 0xff, 0xff, 0xff, 0xff,
+                                          0xff, 0xff, 0xff)).bigIntegerValue());
+        assertEquals(new BigInteger("-18446744073709551616"),
+                     ((JsonNumber) decode(0x3b, 0xff, 0xff, 0xff, 0xff, 0xff,
+                                          0xff, 0xff, 0xff)).bigIntegerValue());
+    }
+
+    @Test
+    public void testBignums() throws IOException {
+        String[] values = { "9223372036854775808", "-9223372036854775809",
+                            "18446744073709551616", "-18446744073709551617",
+                            "123456789012345678901234567890",
+                            "-123456789012345678901234567890" };
+        for (String value : values) {
+            assertNumber(new BigDecimal(value));
+        }
+        // 2^64, as in RFC 8949
+        assertArrayEquals(new byte[] { (byte) 0xc2, 0x49, 1, 0, 0, 0, 0, 0, 0, 0, 0 },
+                          encode(Json.createValue(new BigInteger("18446744073709551616"))));
+    }
+
+    @Test
+    public void testDecimalFractions() throws IOException {
+        String[] values = { "1.5", "-1.5", "0.1", "-0.001", "273.15", "1E-30",
+                            "-1.0E+3", "12345678901234567890.12345678901234567890",
+                            "3.141592653589793" };
+        for (String value : values) {
+            assertNumber(new BigDecimal(value));
+        }
+        // 273.15, as in RFC 8949
+        assertArrayEquals(new byte[] { (byte) 0xc4, (byte) 0x82, 0x21, 0x19, 0x6a,
+                                       (byte) 0xb3 },
+                          encode(Json.createValue(new BigDecimal("273.15"))));
+    }
+
+    @Test
+    public void testFloats() throws IOException {
+        assertEquals(1.5, ((JsonNumber) decode(0xf9, 0x3e, 0x00)).doubleValue());
+        assertEquals(-4.0, ((JsonNumber) decode(0xf9, 0xc4, 0x00)).doubleValue());
+        assertEquals(5.960464477539063e-8,
+                     ((JsonNumber) decode(0xf9, 0x00, 0x01)).doubleValue());
+        assertEquals(100000.0,
+                     ((JsonNumber) decode(0xfa, 0x47, 0xc3, 0x50, 0x00)).doubleValue());
+        assertEquals(1.1, ((JsonNumber) decode(0xfb, 0x3f, 0xf1, 0x99, 0x99, 0x99,
+                                               0x99, 0x99, 0x9a)).doubleValue());
+    }
+
+    @Test
+    public void testStructures() throws IOException {
+        JsonObject object = Json.createObjectBuilder()
+            .add("text", "café 水 🌊")
+            .add("empty", "")
+            .add("array", Json.createArrayBuilder().add(1).add(true).addNull()
+                              .add(Json.createObjectBuilder()))
+            .add("false", false)
+            .add("nested", Json.createObjectBuilder().add("a", -2.5))
+            .build();
+        assertEquals(object, roundTrip(object));
+
+        Map<String, String> values = new TreeMap<>();
+        values.put("os.name", "Linux");
+        values.put("user.name", "é");
+        assertEquals(Json.createObjectBuilder(Map.<String, Object>copyOf(values))
+                         .build(),
+                     Cbor.read(new ByteArrayInputStream(Cbor.encode(values))));
+    }
+
+    @Test
+    public void testIndefiniteLengths() throws IOException {
+        // [_ 1, [2, 3], [_ 4, 5]]
+        assertEquals(Json.createArrayBuilder().add(1)
+                         .add(Json.createArrayBuilder().add(2).add(3))
+                         .add(Json.createArrayBuilder().add(4).add(5))
+                         .build(),
+                     decode(0x9f, 0x01, 0x82, 0x02, 0x03, 0x9f, 0x04, 0x05,
+                            0xff, 0xff));
+        // {_ "a": 1, "b": [_ 2, 3]}
+        assertEquals(Json.createObjectBuilder().add("a", 1)
+                         .add("b", Json.createArrayBuilder().add(2).add(3))
+                         .build(),
+                     decode(0xbf, 0x61, 0x61, 0x01, 0x61, 0x62, 0x9f, 0x02,
+                            0x03, 0xff, 0xff));
+        // (_ "strea", "ming"), also as a key
+        assertEquals(Json.createValue("streaming"),
+                     decode(0x7f, 0x65, 0x73, 0x74, 0x72, 0x65, 0x61, 0x64,
+                            0x6d, 0x69, 0x6e, 0x67, 0xff));
+        assertEquals(Json.createObjectBuilder().add("ab", 0).build(),
+                     decode(0xa1, 0x7f, 0x61, 0x61, 0x61, 0x62, 0xff, 0x00));
+    }
+
+    @Test
+    public void testStreamedMap() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Cbor.writeStartMap(out);
+        Cbor.writeKey("a", out);
+        Cbor.write(Json.createValue(1), out);
+        Cbor.writeKey("b", out);
+        Cbor.writeStartMap(out);
+        Cbor.writeEnd(out);
+        Cbor.writeEnd(out);
+        assertEquals(Json.createObjectBuilder().add("a", 1)
+                         .add("b", JsonValue.EMPTY_JSON_OBJECT).build(),
+                     Cbor.read(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void testTags() throws IOException {
+        // tags other than numbers only qualify their value: 1(1363896240)
+        assertEquals(Json.createValue(1363896240),
+                     decode(0xc1, 0x1a, 0x51, 0x4b, 0x67, 0xb0));
+        // a decimal fraction with a bignum mantissa
+        assertEquals(0, new BigDecimal("18446744073709551616E-2").compareTo(
+            ((JsonNumber) decode(0xc4, 0x82, 0x21, 0xc2, 0x49, 1, 0, 0, 0, 0,
+                                 0, 0, 0, 0)).bigDecimalValue()));
+    }
+
+    @Test
+    public void testMalformed() {
+        // byte strings, undefined and a reserved additional information
+        assertThrows(JsonParsingException.class, () -> decode(0x41, 0x00));
+        assertThrows(JsonParsingException.class, () -> decode(0xf7));
+        assertThrows(JsonParsingException.class, () -> decode(0x1c));
+        // a break outside of an item of unknown length
+        assertThrows(JsonParsingException.class, () -> decode(0xff));
+        assertThrows(JsonParsingException.class, () -> decode(0x82, 0x01, 0xff));
+        // a key that is not text, and a map ended after a key
+        assertThrows(JsonParsingException.class, () -> decode(0xa1, 0x01, 0x02));
+        assertThrows(JsonParsingException.class, () -> decode(0xbf, 0x61, 0x61, 0xff));
+        // a chunk of another type in a text string of unknown length
+        assertThrows(JsonParsingException.class, () -> decode(0x7f, 0x41, 0x61, 0xff));
+        // decimal fractions that are not a pair of integers, or out of range
+        assertThrows(JsonParsingException.class, () -> decode(0xc4, 0x81, 0x01));
+        assertThrows(JsonParsingException.class,
+                     () -> decode(0xc4, 0x82, 0x61, 0x61, 0x01));
+        assertThrows(JsonParsingException.class,
+                     () -> decode(0xc4, 0x82, 0x1b, 0x00, 0x00, 0x01, 0x00, 0x00,
+                                  0x00, 0x00, 0x00, 0x01));
+        // a bignum that is not a byte string
+        assertThrows(JsonParsingException.class, () -> decode(0xc2, 0x01));
+        // NaN and infinities, which JSON cannot hold
+        assertThrows(JsonParsingException.class, () -> decode(0xf9, 0x7e, 0x00));
+        assertThrows(JsonParsingException.class, () -> decode(0xf9, 0xfc, 0x00));
+        assertThrows(JsonParsingException.class,
+                     () -> decode(0xfa, 0x7f, 0x80, 0x00, 0x00));
+        assertThrows(JsonParsingException.class,
+                     () -> decode(0xfb, 0x7f, 0xf8, 0x00, 0x00, 0x00, 0x00, 0x00,
+                                  0x00));
+        // a length that does not fit in memory
+        assertThrows(JsonParsingException.class,
+                     () -> decode(0x7b, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff,
+                                  0xff, 0xff));
+    }
+
+    @Test
+    public void testTruncated() {
+        assertThrows(EOFException.class, () -> decode());
+        assertThrows(EOFException.class, () -> decode(0x19, 0x01));
+        assertThrows(EOFException.class, () -> decode(0x63, 0x61, 0x62));
+        assertThrows(EOFException.class, () -> decode(0x82, 0x01));
+        assertThrows(EOFException.class, () -> decode(0x9f, 0x01));
+        assertThrows(EOFException.class, () -> decode(0xc2, 0x49, 0x01));
+    }
+
+    @Test
+    public void testDeepNesting() {
+        int[] bytes = new int[100000];
+        Arrays.fill(bytes, 0x81);
+        assertThrows(JsonParsingException.class, () -> decode(bytes));
+    }
+
+}
@@ -1,6 +1,6 @@
 // tag::copyright[]
 /*******************************************************************************
- * Copyright (c) 2017, 2022 IBM Corporation and others.
+ * Copyright (c) 2017, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -16,8 +16,15 @@ import jakarta.json.JsonObject;
 import jakarta.json.JsonValue;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 
+import io.openliberty.guides.microprofile.util.Cbor;
+import io.openliberty.guides.microprofile.util.CborProvider;
+import io.openliberty.guides.microprofile.util.DecompressionInterceptor;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -26,6 +33,7 @@ import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 // tag::class[]
@@ -171,9 +179,236 @@ public class EndpointIT {
     }
     // end::testLinksForSystem[]
 
+    /**
+     * Checks that a bulk registration reports an outcome for every hostname
+     * and adds the reachable ones to the inventory.
+     */
+    @Test
+    @Order(3)
+    public void testBulkRegistration() {
+        Response response = client.target(baseUrl + INVENTORY_HOSTS)
+                                  .request()
+                                  .post(Entity.json("[\"localhost\", \"badhostname\"]"));
+        assertEquals(200, response.getStatus(),
+                     "Incorrect response code from " + baseUrl);
+
+        JsonArray outcomes = response.readEntity(JsonArray.class);
+        response.close();
+        assertEquals(2, outcomes.size(), "Expected one outcome per hostname");
+        for (JsonObject outcome : outcomes.getValuesAs(JsonObject.class)) {
+            String expected = outcome.getString("hostname").equals("localhost")
+                ? "OK" : "UNREACHABLE";
+            assertEquals(expected, outcome.getString("outcome"),
+                         "Incorrect outcome for " + outcome.getString("hostname"));
+        }
+
+        response = this.getResponse(baseUrl + INVENTORY_HOSTS);
+        JsonObject systems = response.readEntity(JsonObject.class);
+        response.close();
+        assertTrue(systems.containsKey("localhost"),
+                   "Registered host localhost is missing from the inventory");
+    }
+
+    /**
+     * Checks that an unchanged inventory answers a conditional request with
+     * 304 Not Modified.
+     */
+    @Test
+    @Order(4)
+    public void testConditionalRequest() {
+        for (String url : new String[] { baseUrl + INVENTORY_HOSTS,
+                                         baseUrl + INVENTORY_HOSTS + "/*" }) {
+            Response response = this.getResponse(url);
+            assertEquals(200, response.getStatus(), "Incorrect response code from " + url);
+            EntityTag etag = response.getEntityTag();
+            response.close();
+            assertNotNull(etag, "Missing ETag from " + url);
+
+            response = client.target(url)
+                             .request()
+                             .header(HttpHeaders.IF_NONE_MATCH, quoted(etag))
+                             .get();
+            assertEquals(304, response.getStatus(),
+                         "Expected 304 Not Modified from " + url);
+            response.close();
+        }
+    }
+
+    /**
+     * Checks that a page of the inventory contents holds at most the requested
+     * number of hosts and links to the pages around it.
+     */
+    @Test
+    @Order(5)
+    public void testPagedInventoryContents() {
+        Response response = this.getResponse(baseUrl + INVENTORY_HOSTS
+                                             + "/*?limit=1&os.name="
+                                             + System.getProperty("os.name").replace(" ", "%20"));
+        assertEquals(200, response.getStatus(),
+                     "Incorrect response code from " + baseUrl);
+        JsonObject page = response.readEntity(JsonObject.class);
+        response.close();
+
+        assertEquals(1, page.getJsonObject("hosts").size(),
+                     "Expected one host in the page");
+        assertTrue(page.containsKey("links"), "Missing page links");
+        for (JsonObject link : page.getJsonArray("links")
+                                   .getValuesAs(JsonObject.class)) {
+            assertTrue(link.getString("href").contains("limit=1"),
+                       "Page link does not keep the limit");
+        }
+    }
+
+    /**
+     * Checks that the system properties can be projected to a few keys and
+     * answer a conditional request with 304 Not Modified.
+     */
+    @Test
+    @Order(6)
+    public void testSystemPropertiesProjection() {
+        String url = baseUrl + SYSTEM_PROPERTIES + "?keys=os.name,user.name";
+        Response response = this.getResponse(url);
+        assertEquals(200, response.getStatus(), "Incorrect response code from " + url);
+        EntityTag etag = response.getEntityTag();
+        JsonObject properties = response.readEntity(JsonObject.class);
+        response.close();
+        assertNotNull(etag, "Missing ETag from " + url);
+        assertEquals(2, properties.size(), "Expected only the requested keys");
+        assertEquals(System.getProperty("os.name"), properties.getString("os.name"),
+                     "Incorrect os.name");
+
+        response = client.target(url)
+                         .request()
+                         .header(HttpHeaders.IF_NONE_MATCH, quoted(etag))
+                         .get();
+        assertEquals(304, response.getStatus(),
+                     "Expected 304 Not Modified from " + url);
+        response.close();
+    }
+
+    /**
+     * Checks that a client holding the current version of the system
+     * properties is sent an empty merge patch.
+     */
+    @Test
+    @Order(7)
+    public void testSystemPropertiesDelta() {
+        Response response = this.getResponse(baseUrl + SYSTEM_PROPERTIES);
+        EntityTag etag = response.getEntityTag();
+        response.close();
+        assertNotNull(etag, "Missing ETag from " + baseUrl + SYSTEM_PROPERTIES);
+
+        String url = baseUrl + SYSTEM_PROPERTIES + "?since=" + etag.getValue();
+        response = client.target(url).request()
+                         .header(HttpHeaders.ACCEPT, "application/merge-patch+json")
+                         .get();
+        assertEquals(200, response.getStatus(), "Incorrect response code from " + url);
+        assertEquals("application/merge-patch+json",
+                     response.getMediaType().toString(),
+                     "Expected a merge patch from " + url);
+        assertEquals(0, response.readEntity(JsonObject.class).size(),
+                     "Expected no changes from " + url);
+        response.close();
+    }
+
+    /**
+     * Checks that a host can be read as CBOR.
+     */
+    @Test
+    @Order(8)
+    public void testCborRepresentation() {
+        client.register(CborProvider.class);
+        String url = baseUrl + INVENTORY_HOSTS + "/localhost";
+        Response response = client.target(url).request(Cbor.MEDIA_TYPE).get();
+        assertEquals(200, response.getStatus(), "Incorrect response code from " + url);
+        assertEquals(Cbor.MEDIA_TYPE, response.getMediaType().toString(),
+                     "Expected CBOR from " + url);
+        JsonObject properties = response.readEntity(JsonObject.class);
+        response.close();
+        assertEquals(System.getProperty("os.name"), properties.getString("os.name"),
+                     "Incorrect os.name");
+    }
+
+    /**
+     * Checks that the system properties are sent gzipped, with their own
+     * entity tag, to a client that accepts it, and can still be revalidated.
+     */
+    @Test
+    @Order(9)
+    public void testCompression() {
+        client.register(DecompressionInterceptor.class);
+        String url = baseUrl + SYSTEM_PROPERTIES;
+        Response response = client.target(url).request()
+                                  .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                                  .get();
+        assertEquals(200, response.getStatus(), "Incorrect response code from " + url);
+        assertEquals("gzip", response.getHeaderString(HttpHeaders.CONTENT_ENCODING),
+                     "Expected a gzipped body from " + url);
+        EntityTag etag = response.getEntityTag();
+        assertNotNull(etag, "Missing ETag from " + url);
+        assertTrue(etag.getValue().endsWith("-gzip"),
+                   "Expected the tag of the gzipped representation from " + url);
+        JsonObject properties = response.readEntity(JsonObject.class);
+        response.close();
+        assertEquals(System.getProperty("os.name"), properties.getString("os.name"),
+                     "Incorrect os.name");
+
+        response = client.target(url).request()
+                         .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                         .header(HttpHeaders.IF_NONE_MATCH, quoted(etag))
+                         .get();
+        assertEquals(304, response.getStatus(), "Expected 304 from " + url);
+        response.close();
+    }
+
+    /**
+     * Checks that a node without configured inventory nodes runs on its own
+     * and owns every host in its inventory.
+     */
+    @Test
+    @Order(10)
+    public void testClusterMembership() {
+        visitLocalhost();
+        String url = baseUrl + "inventory/stats/cluster";
+        Response response = this.getResponse(url);
+        assertEquals(200, response.getStatus(), "Incorrect response code from " + url);
+        JsonObject cluster = response.readEntity(JsonObject.class);
+        response.close();
+        assertEquals(0, cluster.getJsonArray("nodes").size(),
+                     "Expected no other inventory nodes");
+        assertTrue(cluster.getInt("owned") >= 1, "Expected localhost to be owned");
+    }
+
+    /**
+     * Checks that a client asking for the changes since a version that is not
+     * known is sent the whole properties as JSON, not labeled as a patch.
+     */
+    @Test
+    @Order(11)
+    public void testSystemPropertiesUnknownVersion() {
+        String url = baseUrl + SYSTEM_PROPERTIES + "?since=unknown-1";
+        Response response = client.target(url).request()
+                                  .header(HttpHeaders.ACCEPT,
+                                          "application/merge-patch+json, "
+                                          + "application/json;q=0.9")
+                                  .get();
+        assertEquals(200, response.getStatus(), "Incorrect response code from " + url);
+        assertEquals("application/json", response.getMediaType().toString(),
+                     "Expected the whole properties from " + url);
+        JsonObject properties = response.readEntity(JsonObject.class);
+        response.close();
+        assertEquals(System.getProperty("os.name"), properties.getString("os.name"),
+                     "Incorrect os.name");
+    }
+
     /**
      * Returns a Response object for the specified URL.
      */
+    // the header value of a strong entity tag
+    private static String quoted(EntityTag etag) {
+        return "\"" + etag.getValue() + "\"";
+    }
+
     private Response getResponse(String url) {
         return client.target(url).request().get();
     }
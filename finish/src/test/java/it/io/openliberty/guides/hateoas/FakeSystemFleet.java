@@ -0,0 +1,122 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package it.io.openliberty.guides.hateoas;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process stand-ins for the system services of a fleet of hosts. Each host
+ * has its own loopback address, starting at 127.0.0.2, and listens on the same
+ * port, so that the inventory reaches it through its usual URL. Binding
+ * addresses other than 127.0.0.1 works on Linux; other systems need loopback
+ * aliases.
+ */
+public class FakeSystemFleet implements AutoCloseable {
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final List<String> hostnames = new ArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long latency;
+    private final double failureRate;
+
+    /**
+     * Starts the fleet.
+     *
+     * @param hosts       number of hosts
+     * @param port        port every host listens on
+     * @param latency     milliseconds each response is delayed
+     * @param failureRate fraction of the requests answered with an error
+     * @param payloadSize characters added to each response body
+     */
+    public FakeSystemFleet(int hosts, int port, long latency, double failureRate,
+                           int payloadSize) throws IOException {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        try {
+            for (int i = 0; i < hosts; i++) {
+                String hostname = address(i);
+                byte[] body = properties(hostname, payloadSize);
+                HttpServer server = HttpServer.create(
+                    new InetSocketAddress(InetAddress.getByName(hostname), port), 0);
+                server.createContext("/system/properties",
+                                     exchange -> respond(exchange, body));
+                server.setExecutor(executor);
+                server.start();
+                servers.add(server);
+                hostnames.add(hostname);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public List<String> getHostnames() {
+        return hostnames;
+    }
+
+    // 127.0.0.2 to 127.0.0.254, then 127.0.1.2 and so on
+    private static String address(int i) {
+        return "127.0." + (i / 253) + "." + (i % 253 + 2);
+    }
+
+    private static byte[] properties(String hostname, int payloadSize) {
+        StringBuilder padding = new StringBuilder(payloadSize);
+        for (int i = 0; i < payloadSize; i++) {
+            padding.append('x');
+        }
+        return ("{\"os.name\":\"Linux\",\"user.name\":\"load\","
+            + "\"host.address\":\"" + hostname + "\","
+            + "\"java.version\":\"" + System.getProperty("java.version") + "\","
+            + "\"padding\":\"" + padding + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try {
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        servers.forEach(server -> server.stop(0));
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,154 @@
+// tag::copyright[]
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+// end::copyright[]
+package it.io.openliberty.guides.hateoas;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the inventory at a fixed request rate against a fleet of fake system
+ * services and reports the latency percentiles and the throughput. Run with
+ * mvn -Pload verify; the load.* properties of that profile set the shape of
+ * the fleet and of the load.
+ */
+@EnabledIfSystemProperty(named = "load.hosts", matches = "[1-9][0-9]*")
+public class LoadIT {
+
+    private final int hosts = Integer.getInteger("load.hosts");
+    private final int port = Integer.getInteger("load.port", 9081);
+    private final int rate = Integer.getInteger("load.rate", 200);
+    private final int duration = Integer.getInteger("load.duration", 30);
+    private final long latency = Long.getLong("load.latency", 20);
+    private final double failureRate =
+        Double.parseDouble(System.getProperty("load.failureRate", "0"));
+    private final int payloadSize = Integer.getInteger("load.payloadSize", 0);
+    // percentage of the requests for a whole listing instead of one host
+    private final int listPercent = Integer.getInteger("load.listPercent", 5);
+    // executor of the outbound fetches of the inventory under test
+    private final String threads = System.getProperty("load.threads", "managed");
+
+    private final String baseUrl =
+        "http://localhost:" + System.getProperty("http.port") + "/inventory/hosts/";
+
+    @Test
+    public void testLoad() throws Exception {
+        try (FakeSystemFleet fleet = new FakeSystemFleet(hosts, port, latency,
+                                                         failureRate,
+                                                         payloadSize)) {
+            HttpClient client = HttpClient.newBuilder()
+                                          .connectTimeout(Duration.ofSeconds(5))
+                                          .build();
+            Recorder host = new Recorder(rate * duration);
+            Recorder list = new Recorder(rate * duration);
+            long elapsed = drive(client, fleet.getHostnames(), host, list);
+
+            System.out.printf("%d hosts, %d requests/s for %d s, %d ms latency,"
+                + " %.3f failure rate, %s fetch threads%n", hosts, rate, duration,
+                latency, failureRate, threads);
+            host.report("hosts/{hostname}", elapsed);
+            list.report("hosts/*", elapsed);
+            assertTrue(host.count() + list.count() > 0, "No request completed");
+        }
+    }
+
+    /**
+     * Sends the requests at their scheduled times, without waiting for the
+     * responses, so that a slow response does not delay the next requests;
+     * latency is measured from the scheduled time.
+     */
+    private long drive(HttpClient client, List<String> hostnames,
+                       Recorder host, Recorder list) throws Exception {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        int total = rate * duration;
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[total];
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long scheduled = start + i * interval;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            boolean listing = random.nextInt(100) < listPercent;
+            String path = listing ? "*"
+                : hostnames.get(random.nextInt(hostnames.size()));
+            Recorder recorder = listing ? list : host;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                             .timeout(Duration.ofSeconds(30))
+                                             .build();
+            responses[i] = client.sendAsync(request,
+                                            HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> recorder.record(
+                    System.nanoTime() - scheduled,
+                    error == null && response.statusCode() == 200));
+        }
+        CompletableFuture.allOf(responses).exceptionally(e -> null).join();
+        return System.nanoTime() - start;
+    }
+
+    private static final class Recorder {
+        private final long[] latencies;
+        private final AtomicInteger next = new AtomicInteger();
+        private final LongAdder errors = new LongAdder();
+
+        Recorder(int capacity) {
+            latencies = new long[capacity];
+        }
+
+        void record(long nanos, boolean ok) {
+            latencies[next.getAndIncrement()] = nanos;
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        int count() {
+            return next.get();
+        }
+
+        void report(String name, long elapsed) {
+            int count = count();
+            if (count == 0) {
+                System.out.printf("%-18s no requests%n", name);
+                return;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("%-18s %8d requests %10.1f/s %6d errors"
+                + "   p50 %8.2f ms   p99 %8.2f ms   p999 %8.2f ms%n",
+                name, count, count / (elapsed / 1e9), errors.sum(),
+                percentile(sorted, 0.5), percentile(sorted, 0.99),
+                percentile(sorted, 0.999));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+}